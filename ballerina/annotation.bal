@@ -20,14 +20,44 @@
 # + queueGroup - The name of the queue group
 # + durableName - The name for durable subscriptions
 # + maxInFlight - The number of messages the cluster will have in-flight
-#                   without an ACK
+#                   without an ACK. For an isolated service, this is also the
+#                   maximum number of messages processed concurrently
 # + ackWait - The time (in seconds) the cluster will wait for an
 #                           ACK for a given message
 # + subscriptionTimeout - The time (in seconds) the subscription
 #                           will wait if a network failure occurs during
 #                           the creation of it
-# + autoAck - if false, should manually ack the message
+# + autoAck - if false, should manually ack the message. Otherwise, the message
+#             is acknowledged once the remote function returns
 # + startPosition - The position to start receiving messages
+# + maxBatchSize - The maximum number of messages delivered in a single call of the
+#                  `onMessages` remote function. Should not exceed the `maxInFlight`
+# + batchLinger - The maximum time (in seconds) to wait for a batch to fill up before
+#                 delivering it to the `onMessages` remote function
+# + orderingKey - Extracts an ordering key from the messages delivered to the `onMessage` remote
+#                 function of an isolated service. The messages with different keys are processed
+#                 concurrently, while the messages with the same key are processed one at a time
+#                 in the order they are received
+# + ackBatchSize - The number of acknowledgements deferred through `stan:Caller->deferAck()`, which are
+#                  sent together. Should not exceed the `maxInFlight`
+# + ackFlushInterval - The maximum time (in seconds) a deferred acknowledgement waits before it is sent.
+#                      Should be well below the `ackWait`
+# + includeDeliveryInfo - If true, the sequence number, timestamp and redelivery flag assigned by the
+#                         server are set in the delivered messages
+# + deduplication - Skips the messages redelivered by the server after the service processed them
+#                   successfully. The skipped messages are acknowledged
+# + maxRedeliveries - The number of times a message may be redelivered. A message redelivered more times is
+#                     published to the `deadLetterSubject` and acknowledged
+# + deadLetterSubject - The subject the messages exceeding the `maxRedeliveries` are published to. Required when
+#                       the `maxRedeliveries` is specified
+# + circuitBreaker - Pauses the dispatching of messages while the service fails too often
+# + adaptiveConcurrency - Adapts the number of messages an isolated service processes concurrently to its latency,
+#                         within the `maxInFlight`
+# + replay - Replays a range of the stored messages through several subscriptions in parallel, instead of
+#            subscribing from the `startPosition`
+# + filter - Acknowledges the messages not meant for the service without dispatching them
+# + checkpointKey - Identifies the checkpoint of the service in the checkpoint store of the listener, among the
+#                   services subscribed to the same subject. Defaults to the `durableName`, if any
 public type ServiceConfigData record {|
   string subject;
   string queueGroup?;
@@ -37,6 +67,127 @@ public type ServiceConfigData record {|
   decimal subscriptionTimeout = 2;
   boolean autoAck = true;
   StartPosition startPosition = NEW_ONLY;
+  int maxBatchSize = 100;
+  decimal batchLinger = 0.1;
+  OrderingKey orderingKey?;
+  int ackBatchSize = 100;
+  decimal ackFlushInterval = 0.1;
+  boolean includeDeliveryInfo = false;
+  Deduplication deduplication?;
+  int maxRedeliveries?;
+  string deadLetterSubject?;
+  CircuitBreakerConfig circuitBreaker?;
+  AdaptiveConcurrency adaptiveConcurrency?;
+  ReplayConfig replay?;
+  MessageFilter filter?;
+  string checkpointKey?;
+|};
+
+# Configurations to extract the ordering key of a message from its content.
+#
+# + offset - The index of the first byte of the key in the content
+# + length - The maximum number of bytes in the key. If not specified, the key extends to the end of the content
+# + delimiter - A byte, which ends the key when it is found before `length` bytes
+# + lanes - The number of ordered lanes the keys are spread over. This bounds the number of messages
+#           processed concurrently
+public type OrderingKey record {|
+  int offset = 0;
+  int length?;
+  byte delimiter?;
+  int lanes = 16;
+|};
+
+# Configurations of the window of processed messages used to skip the redelivered messages.
+#
+# + window - The number of the most recent sequence numbers of the channel the window remembers
+# + offHeap - If true, the window is kept outside the heap, which suits large windows
+public type Deduplication record {|
+  int window = 4096;
+  boolean offHeap = false;
+|};
+
+# Configurations of the circuit breaker of a service. Once the share of failed messages within the rolling window
+# reaches the `failureThreshold`, the circuit opens and the received messages are left unacknowledged without being
+# dispatched, so that the server redelivers them after the `ackWait`. After the `resetTime`, the messages are
+# dispatched again and the circuit closes once a message is processed successfully. A message fails when the remote
+# function returns an error or panics.
+#
+# + rollingWindow - The time (in seconds) over which the outcomes of the messages are counted
+# + buckets - The number of buckets the rolling window is split into
+# + failureThreshold - The share of failed messages within the rolling window, which opens the circuit
+# + requestVolumeThreshold - The minimum number of messages within the rolling window before the circuit can open
+# + resetTime - The time (in seconds) the circuit stays open before the messages are dispatched again
+public type CircuitBreakerConfig record {|
+  decimal rollingWindow = 10;
+  int buckets = 10;
+  float failureThreshold = 0.5;
+  int requestVolumeThreshold = 10;
+  decimal resetTime = 30;
+|};
+
+# Configurations to adapt the concurrency of a service to its latency. The number of messages processed concurrently
+# grows while the messages are processed within the `latencyTarget` and shrinks when they are not or when the server
+# redelivers a message.
+#
+# + minInFlight - The minimum number of messages processed concurrently, which is also the initial number
+# + latencyTarget - The time (in seconds) a message is expected to be processed within
+# + backoffRatio - The ratio the number of messages processed concurrently is multiplied by when it shrinks
+public type AdaptiveConcurrency record {|
+  int minInFlight = 1;
+  decimal latencyTarget = 1;
+  float backoffRatio = 0.9;
+|};
+
+# Configurations to replay a range of the stored messages of a subject. The range is split into partitions, each
+# received through an ephemeral subscription started at the beginning of the partition and closed once all of its
+# messages are acknowledged or processed. Each subscription keeps up to `maxInFlight` messages in flight. The messages
+# are not dispatched in the order of their sequence numbers, and the `queueGroup`, `durableName`, and `startPosition`
+# are not used.
+#
+# + startSequence - The sequence number of the first message to be replayed
+# + endSequence - The sequence number of the last message to be replayed
+# + partitions - The number of partitions the range is split into
+# + idleTimeout - The time (in seconds) after which a partition, which neither received nor completed a message and
+#                 has no message left in process, is closed. This ends the partitions extending beyond the last
+#                 message of the subject
+public type ReplayConfig record {|
+  int startSequence;
+  int endSequence;
+  int partitions = 4;
+  decimal idleTimeout = 30;
+|};
+
+# Configurations to filter the messages of a service before they are dispatched. The messages which do not pass the
+# filter are acknowledged without being dispatched, even if the `autoAck` is disabled.
+#
+# + contentPrefix - The bytes, or the UTF-8 encoded string, the content of a message should start with
+# + sampleRate - The share of the messages, which are randomly picked to be dispatched, within (0, 1]
+public type MessageFilter record {|
+  byte[]|string contentPrefix?;
+  float sampleRate = 1;
+|};
+
+# Configurations of a subscription consumed as a stream through `stan:Client->subscribe()`.
+#
+# + queueGroup - Name of the queue group
+# + durableName - Name of the durable subscription
+# + maxInFlight - The maximum number of messages the server sends ahead of the consumer. This also bounds the
+#                 number of messages queued by the stream
+# + ackWait - The time (in seconds) the server waits for a message to be acknowledged before redelivering it
+# + subscriptionTimeout - The time (in seconds) to wait for the subscription to be created
+# + startPosition - The position to start receiving messages
+# + pollTimeout - The time (in seconds) the stream waits for the next message before it ends. If not specified,
+#                 the stream waits until it or the client is closed
+# + includeDeliveryInfo - If true, the messages carry their sequence number, timestamp, and redelivery flag
+public type SubscriptionConfig record {|
+  string queueGroup?;
+  string durableName?;
+  int maxInFlight = 1024;
+  decimal ackWait = 30;
+  decimal subscriptionTimeout = 2;
+  StartPosition startPosition = NEW_ONLY;
+  decimal pollTimeout?;
+  boolean includeDeliveryInfo = false;
 |};
 
 # The annotation, which is used to configure the streaming subscription.
@@ -19,7 +19,8 @@ import ballerina/jballerina.java;
 # Represents the caller.
 public isolated client class Caller {
 
-    # Acknowledges the NATS streaming server upon the receipt of the message.
+    # Acknowledges the NATS streaming server upon the receipt of the message. When the caller is received by the
+    # `onMessages` remote function, all the messages of the batch are acknowledged.
     # ```ballerina
     # check caller->ack();
     # ```
@@ -29,4 +30,18 @@ public isolated client class Caller {
     @java:Method {
         'class: "io.ballerina.stdlib.stan.message.Ack"
     } external;
+
+    # Queues the acknowledgement of the message, which is sent together with the acknowledgements of other messages
+    # once `ackBatchSize` acknowledgements are queued or `ackFlushInterval` elapses. The queued acknowledgements are
+    # also sent when the listener is stopped. When the caller is received by the `onMessages` remote function, the
+    # acknowledgements of all the messages of the batch are queued.
+    # ```ballerina
+    # check caller->deferAck();
+    # ```
+    #
+    # + return - `()` or else a `stan:Error` upon failure to queue the acknowledgement
+    isolated remote function deferAck() returns Error? =
+    @java:Method {
+        'class: "io.ballerina.stdlib.stan.message.Ack"
+    } external;
 }
@@ -37,7 +37,8 @@ public isolated client class Client {
     #
     # + message - The message to be published
     # + return - The `string` value representing the NUID (NATS Unique Identifier) of the published message if the
-    #            message gets successfully published and acknowledged by the NATS server,
+    #            message gets successfully published and acknowledged by the NATS server, a locally generated
+    #            identifier if the message is appended to the configured outbox instead,
     #            a `stan:Error` with NUID and `message` fields in case an error occurs in publishing, the timeout
     #            elapses while waiting for the acknowledgement, or else
     #            a `stan:Error` only with the `message` field in case an error occurs even before publishing
@@ -47,6 +48,42 @@ public isolated client class Client {
         'class: "io.ballerina.stdlib.stan.producer.Publish"
     } external;
 
+    # Publishes a batch of messages without waiting for the acknowledgement of each message before publishing
+    # the next one.
+    # ```ballerina
+    # (string|stan:Error)[] results = check stanClient->publishMessages(messages);
+    # ```
+    #
+    # + messages - The messages to be published
+    # + return - An array containing a result per message in the same order as the `messages`. A result is the
+    #            `string` value representing the NUID of the message if it gets successfully published and
+    #            acknowledged by the NATS server, or else a `stan:Error` if publishing or acknowledging that
+    #            message failed
+    isolated remote function publishMessages(Message[] messages) returns (string|Error)[] =
+    @java:Method {
+        'class: "io.ballerina.stdlib.stan.producer.Publish"
+    } external;
+
+    # Subscribes to a given subject and returns the received messages as a stream. The stream hands out one message
+    # at a time and acknowledges it when the next one is requested or the stream is closed. Hence, the server does not
+    # send more than `maxInFlight` messages ahead of the consumer. The subscription is closed once the stream ends.
+    # ```ballerina
+    # stream<stan:Message, stan:Error?> messages = check stanClient->subscribe("orders", pollTimeout = 5);
+    # check from stan:Message message in messages do {
+    #     process(message);
+    # };
+    # ```
+    #
+    # + subject - The subject to subscribe to
+    # + config - The configurations of the subscription
+    # + return - A stream of the received messages, which ends when it is closed, the client is closed, or the
+    #            `pollTimeout` elapses without a message, or else a `stan:Error` if the subscription fails
+    isolated remote function subscribe(string subject, *SubscriptionConfig config)
+            returns stream<Message, Error?>|Error {
+        MessageStream messageStream = check new (self, subject, config);
+        return new (messageStream);
+    }
+
     # Closes the NATS streaming client connection.
     # ```ballerina
     # check stanClient.close();
@@ -59,6 +96,42 @@ public isolated client class Client {
     } external;
 }
 
+# Stream implementor of the messages a `stan:Client` subscribes to.
+isolated class MessageStream {
+
+    isolated function init(Client streamingClient, string subject, SubscriptionConfig config) returns Error? {
+        return streamSubscribe(self, streamingClient, subject, config);
+    }
+
+    public isolated function next() returns record {| Message value; |}|Error? {
+        Message? message = check streamNext(self);
+        if message is () {
+            return;
+        }
+        return {value: message};
+    }
+
+    public isolated function close() returns Error? {
+        return streamClose(self);
+    }
+}
+
+isolated function streamSubscribe(MessageStream messageStream, Client streamingClient, string subject,
+SubscriptionConfig config) returns Error? = @java:Method {
+    name: "subscribe",
+    'class: "io.ballerina.stdlib.stan.consumer.MessageStream"
+} external;
+
+isolated function streamNext(MessageStream messageStream) returns Message|Error? = @java:Method {
+    name: "next",
+    'class: "io.ballerina.stdlib.stan.consumer.MessageStream"
+} external;
+
+isolated function streamClose(MessageStream messageStream) returns Error? = @java:Method {
+    name: "close",
+    'class: "io.ballerina.stdlib.stan.consumer.MessageStream"
+} external;
+
 isolated function streamingClientInit(Client streamingClient, string|string[] urlString,
 *StreamingConfiguration streamingConfig) returns Error? = @java:Method {
     'class: "io.ballerina.stdlib.stan.producer.Init"
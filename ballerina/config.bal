@@ -33,6 +33,19 @@ public const string DEFAULT_URL = "nats://localhost:4222";
 #                           of pinging the server
 # + auth - Configurations related to authentication
 # + secureSocket - Configurations related to SSL/TLS
+# + outbox - Configurations related to the local disk spool of the messages published by a `stan:Client`
+# + compression - Configurations related to compressing the message payloads
+# + checkpoint - Configurations related to the local store of the last messages processed by the services of a
+#                `stan:Listener`
+# + connectionPoolSize - The number of connections a `stan:Client` publishes through. Each connection gets the
+#                        `clientId` suffixed with its index, and all the messages of a subject are published through
+#                        the same connection so that they keep their order
+# + gracefulStopTimeout - The maximum time (in seconds) `stan:Listener.gracefulStop()` waits for the messages being
+#                         processed before closing the connection
+# + virtualThreads - If true, the NATS connections run their internal tasks, such as dispatching the received
+#                    messages, on virtual threads. Requires Java 21 or later. Creating the client or listener fails
+#                    with a `stan:Error` on older runtimes, including the Java 11 runtime of the Ballerina
+#                    distributions this module is built for
 public type StreamingConfiguration record {|
   string clientId?;
   string clusterId = "test-cluster";
@@ -43,6 +56,78 @@ public type StreamingConfiguration record {|
   decimal pingInterval = 120;
   Credentials|Tokens auth?;
   SecureSocket secureSocket?;
+  OutboxConfiguration outbox?;
+  CompressionConfiguration compression?;
+  CheckpointConfiguration checkpoint?;
+  int connectionPoolSize = 1;
+  decimal gracefulStopTimeout = 30;
+  boolean virtualThreads = false;
+|};
+
+# Configurations related to compressing the message payloads. A `stan:Client` compresses the payloads which are at
+# least `threshold` bytes long, when compressing makes them smaller. A `stan:Listener` decompresses the compressed
+# payloads before dispatching them and delivers the plain payloads as they are, so the listeners need to be configured
+# before the clients start compressing.
+#
+# + algorithm - The compression algorithm, or the name of a codec registered with the native `PayloadCompression`
+# + threshold - The minimum size (in bytes) of a payload to be compressed
+# + level - The `DEFLATE` compression level from 0 (no compression) to 9 (best compression), or -1 for the default
+#           level
+public type CompressionConfiguration record {|
+  CompressionAlgorithm|string algorithm = DEFLATE;
+  int threshold = 1024;
+  int level = -1;
+|};
+
+# Represents the supported compression algorithms.
+#
+# + DEFLATE - The DEFLATE algorithm of the JDK `Deflater` and `Inflater`
+public enum CompressionAlgorithm {
+   DEFLATE
+}
+
+# Configurations related to the local disk spool of a `stan:Client`. While the connection is down, or
+# `maxPubAcksInFlight` acknowledgements are in flight, the published messages are appended to the spool and
+# published in the background once the connection can take them. The spooled messages survive restarts.
+#
+# + directory - The directory in which the spool segment files are stored
+# + segmentSize - The size (in bytes) of a single segment file. A message larger than a segment cannot be spooled
+# + fsync - The policy used to flush the spooled messages to the disk
+# + fsyncInterval - The interval (in seconds) between the flushes when the `fsync` policy is `FSYNC_PERIODIC`
+# + maxDiskUsage - The maximum number of bytes the segment files may use on the disk. Publishing fails with an error
+#                  once a spooled message does not fit within it
+public type OutboxConfiguration record {|
+  string directory;
+  int segmentSize = 16777216;
+  FsyncPolicy fsync = FSYNC_PERIODIC;
+  decimal fsyncInterval = 1;
+  int maxDiskUsage = 1073741824;
+|};
+
+# Represents the policies of flushing the spooled messages to the disk.
+#
+# + FSYNC_ALWAYS - Flushes after every spooled message
+# + FSYNC_PERIODIC - Flushes at the configured `fsyncInterval`
+# + FSYNC_NEVER - Leaves flushing to the operating system
+public enum FsyncPolicy {
+   FSYNC_ALWAYS = "ALWAYS",
+   FSYNC_PERIODIC = "PERIODIC",
+   FSYNC_NEVER = "NEVER"
+}
+
+# Configurations related to the local checkpoint store of a `stan:Listener`. The store records the sequence number of
+# the last message processed by each service, and a service without a `durableName` resumes from the message after it
+# when the listener is started again. The checkpoints are kept per subject and `checkpointKey` of the service.
+#
+# + directory - The directory in which the checkpoint log is stored
+# + flushInterval - The interval (in seconds) between the writes of the checkpoints to the log. The messages processed
+#                   within the last interval before a crash are delivered again
+# + compactionThreshold - The number of records appended to the log before it is rewritten with only the latest
+#                         checkpoint of each service
+public type CheckpointConfiguration record {|
+  string directory;
+  decimal flushInterval = 1;
+  int compactionThreshold = 10000;
 |};
 
 # Configurations related to token based authentication.
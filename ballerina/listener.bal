@@ -67,14 +67,16 @@ public isolated class Listener {
         return;
     }
 
-    # Stops the `stan:Listener` gracefully.
+    # Stops the `stan:Listener` gracefully. The listener stops dispatching the received messages, waits up to the
+    # `gracefulStopTimeout` for the messages being processed, sends the deferred acknowledgements and then closes the
+    # connection. The messages received meanwhile are left unacknowledged, so that the server redelivers them.
     # ```ballerina
     # check stanListener.gracefulStop();
     # ```
     #
     # + return - `()` or else a `stan:Error` upon failure to stop the listener
     public isolated function gracefulStop() returns error? {
-        return ();
+        return streamingListenerGracefulStop(self);
     }
 
     # Stops the `stan:Listener` forcefully.
@@ -112,6 +114,11 @@ isolated function streamingListenerClose(Listener lis) returns error? =
     'class: "io.ballerina.stdlib.stan.consumer.Close"
 } external;
 
+isolated function streamingListenerGracefulStop(Listener lis) returns error? =
+@java:Method {
+    'class: "io.ballerina.stdlib.stan.consumer.Close"
+} external;
+
 # The STAN service type
 public type Service distinct service object {
     // TBD when support for optional params in remote functions is available in lang
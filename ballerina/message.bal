@@ -18,8 +18,17 @@
 #
 # + content - The message content
 # + subject - The subject to which the message was sent to
+# + sequence - The sequence number the server assigned to the message in its channel. Only set when
+#              `includeDeliveryInfo` is enabled in the `stan:ServiceConfig`
+# + timestamp - The time (in nanoseconds since the epoch) the server stored the message. Only set when
+#               `includeDeliveryInfo` is enabled in the `stan:ServiceConfig`
+# + redelivered - Whether the server delivered the message before. Only set when `includeDeliveryInfo`
+#                 is enabled in the `stan:ServiceConfig`
 public type Message record {|
     byte[] content;
     string subject;
+    int sequence?;
+    int timestamp?;
+    boolean redelivered?;
 |};
 
@@ -18,6 +18,7 @@ import ballerina/lang.'string;
 import ballerina/lang.runtime as runtime;
 import ballerina/log;
 import ballerina/test;
+import ballerina/time;
 
 const CONSUMER_SERVICE_SUBJECT_NAME = "nats-streaming-consumer-service";
 const ACK_SUBJECT_NAME = "nats-streaming-ack";
@@ -27,6 +28,25 @@ const SERVICE_NO_CONFIG_NAME = "nats-streaming-service-no-config";
 const QUEUE_SUBJECT_NAME = "nats-streaming-queue";
 const DURABLE_SUBJECT_NAME = "nats-streaming-queue";
 const ISOLATED_SUBJECT_NAME = "nats-streaming-isolated";
+const BATCH_SUBJECT_NAME = "nats-streaming-batch";
+const COMPRESSED_SUBJECT_NAME = "nats-streaming-compressed";
+const ORDERED_SUBJECT_NAME = "nats-streaming-ordered";
+const DEFERRED_ACK_SUBJECT_NAME = "nats-streaming-deferred-ack";
+const DELIVERY_INFO_SUBJECT_NAME = "nats-streaming-delivery-info";
+const CHECKPOINT_SUBJECT_NAME = "nats-streaming-checkpoint";
+const CHECKPOINT_BREAKER_SUBJECT_NAME = "nats-streaming-checkpoint-breaker";
+const CHECKPOINT_OUT_OF_ORDER_SUBJECT_NAME = "nats-streaming-checkpoint-out-of-order";
+const DEDUPLICATION_SUBJECT_NAME = "nats-streaming-deduplication";
+const POISON_SUBJECT_NAME = "nats-streaming-poison";
+const DEAD_LETTER_SUBJECT_NAME = "nats-streaming-dead-letter";
+const ON_ERROR_SUBJECT_NAME = "nats-streaming-on-error";
+const GRACEFUL_STOP_SUBJECT_NAME = "nats-streaming-graceful-stop";
+const ADAPTIVE_SUBJECT_NAME = "nats-streaming-adaptive";
+const STREAM_SUBJECT_NAME = "nats-streaming-stream";
+const FILTER_SUBJECT_NAME = "nats-streaming-filter";
+
+// A directory of its own for each run, so that the checkpoints of a previous run are not resumed.
+final string checkpointDirectory = string `build/checkpoints/${time:utcNow()[0]}`;
 
 isolated boolean messageRecceived = false;
 
@@ -42,11 +62,65 @@ isolated function isMessageRecceived() returns boolean {
     }
 }
 
+isolated string[] orderedMessages = [];
+isolated int adaptiveMessageCount = 0;
+
+isolated function addOrderedMessage(string message) {
+    lock {
+        orderedMessages.push(message);
+    }
+}
+
+isolated function getOrderedMessages() returns string[] {
+    lock {
+        return orderedMessages.clone();
+    }
+}
+
+isolated function incrementAdaptiveMessageCount() {
+    lock {
+        adaptiveMessageCount += 1;
+    }
+}
+
+isolated function getAdaptiveMessageCount() returns int {
+    lock {
+        return adaptiveMessageCount;
+    }
+}
+
+isolated string[] checkpointOutOfOrderMessages = [];
+
+isolated function addCheckpointOutOfOrderMessage(string message) {
+    lock {
+        checkpointOutOfOrderMessages.push(message);
+    }
+}
+
+isolated function countCheckpointOutOfOrderMessages(string message) returns int {
+    lock {
+        return checkpointOutOfOrderMessages.filter(received => received == message).length();
+    }
+}
+
 string receivedConsumerMessage = "";
 string receivedAckMessage = "";
 string noConfigServiceReceivedMessage = "";
 string receivedQueueMessage = "";
 string receivedDurableMessage = "";
+int receivedBatchMessageCount = 0;
+string receivedCompressedMessage = "";
+int receivedDeferredAckMessageCount = 0;
+int? receivedSequence = ();
+boolean? receivedRedelivered = ();
+int receivedCheckpointMessageCount = 0;
+string[] checkpointBreakerMessages = [];
+int receivedDeduplicatedMessageCount = 0;
+int receivedPoisonMessageCount = 0;
+string receivedDeadLetterMessage = "";
+string receivedOnErrorMessage = "";
+boolean gracefulStopMessageProcessed = false;
+string[] filteredServiceMessages = [];
 
 boolean ackNegativeFlag = false;
 boolean invalidServiceFlag = true;
@@ -124,6 +198,267 @@ function testConsumerServiceWithAck() returns error? {
     return;
 }
 
+@test:Config {
+    dependsOn: [testProducer],
+    groups: ["nats-streaming"]
+}
+function testConsumerServiceWithDeferredAck() returns error? {
+    string message = "Testing Consumer Service With Deferred Acknowledgement";
+    Listener sub = check new(DEFAULT_URL);
+    Client newClient = check new(DEFAULT_URL);
+    check sub.attach(deferredAckService);
+    check sub.'start();
+    foreach int i in 0 ..< 3 {
+        _ = check newClient->publishMessage({ content: message.toBytes(), subject: DEFERRED_ACK_SUBJECT_NAME });
+    }
+    runtime:sleep(5);
+    test:assertEquals(receivedDeferredAckMessageCount, 3, msg = "Message count does not match.");
+    check sub.gracefulStop();
+    check newClient.close();
+    check sub.close();
+    return;
+}
+
+@test:Config {
+    dependsOn: [testProducer],
+    groups: ["nats-streaming"]
+}
+function testConsumerServiceWithDeliveryInfo() returns error? {
+    string message = "Testing Consumer Service With Delivery Info";
+    Listener sub = check new(DEFAULT_URL);
+    Client newClient = check new(DEFAULT_URL);
+    check sub.attach(deliveryInfoService);
+    check sub.'start();
+    _ = check newClient->publishMessage({ content: message.toBytes(), subject: DELIVERY_INFO_SUBJECT_NAME });
+    runtime:sleep(5);
+    test:assertTrue(receivedSequence is int, msg = "Sequence number is not set.");
+    test:assertEquals(receivedRedelivered, false, msg = "Redelivery flag does not match.");
+    check newClient.close();
+    check sub.close();
+    return;
+}
+
+@test:Config {
+    dependsOn: [testProducer],
+    groups: ["nats-streaming"]
+}
+function testConsumerServiceWithCheckpoint() returns error? {
+    string message = "Testing Consumer Service With Checkpoint";
+    Client newClient = check new(DEFAULT_URL);
+    Listener sub = check new(DEFAULT_URL, checkpoint = { directory: checkpointDirectory });
+    check sub.attach(checkpointService);
+    check sub.'start();
+    _ = check newClient->publishMessage({ content: message.toBytes(), subject: CHECKPOINT_SUBJECT_NAME });
+    _ = check newClient->publishMessage({ content: message.toBytes(), subject: CHECKPOINT_SUBJECT_NAME });
+    runtime:sleep(5);
+    check sub.close();
+    test:assertEquals(receivedCheckpointMessageCount, 2, msg = "Message count does not match.");
+
+    _ = check newClient->publishMessage({ content: message.toBytes(), subject: CHECKPOINT_SUBJECT_NAME });
+    Listener resumedSub = check new(DEFAULT_URL, checkpoint = { directory: checkpointDirectory });
+    check resumedSub.attach(checkpointService);
+    check resumedSub.'start();
+    runtime:sleep(5);
+    test:assertEquals(receivedCheckpointMessageCount, 3, msg = "Processed messages are replayed.");
+    check newClient.close();
+    check resumedSub.close();
+    return;
+}
+
+@test:Config {
+    dependsOn: [testProducer],
+    groups: ["nats-streaming"]
+}
+function testConsumerServiceWithCheckpointAndOpenCircuit() returns error? {
+    Client newClient = check new(DEFAULT_URL);
+    Listener sub = check new(DEFAULT_URL, checkpoint = { directory: checkpointDirectory });
+    check sub.attach(checkpointBreakerService);
+    check sub.'start();
+    // The failure opens the circuit, so the next message is held back, while the last one is filtered out and
+    // acknowledged ahead of it.
+    _ = check newClient->publishMessage({ content: "keep:fail".toBytes(), subject: CHECKPOINT_BREAKER_SUBJECT_NAME });
+    runtime:sleep(2);
+    _ = check newClient->publishMessage({ content: "keep:held".toBytes(), subject: CHECKPOINT_BREAKER_SUBJECT_NAME });
+    _ = check newClient->publishMessage({ content: "skip".toBytes(), subject: CHECKPOINT_BREAKER_SUBJECT_NAME });
+    runtime:sleep(3);
+    check sub.close();
+    test:assertEquals(checkpointBreakerMessages, ["keep:fail"], msg = "Held back message is dispatched.");
+
+    Listener resumedSub = check new(DEFAULT_URL, checkpoint = { directory: checkpointDirectory });
+    check resumedSub.attach(checkpointBreakerService);
+    check resumedSub.'start();
+    runtime:sleep(5);
+    test:assertEquals(checkpointBreakerMessages, ["keep:fail", "keep:held"],
+                      msg = "Held back message is skipped by the checkpoint.");
+    check newClient.close();
+    check resumedSub.close();
+    return;
+}
+
+@test:Config {
+    dependsOn: [testProducer],
+    groups: ["nats-streaming"]
+}
+function testConsumerServiceWithCheckpointAndOutOfOrderCompletion() returns error? {
+    Client newClient = check new(DEFAULT_URL);
+    Listener sub = check new(DEFAULT_URL, checkpoint = { directory: checkpointDirectory });
+    check sub.attach(checkpointOutOfOrderService);
+    check sub.'start();
+    _ = check newClient->publishMessage({ content: "first".toBytes(), subject: CHECKPOINT_OUT_OF_ORDER_SUBJECT_NAME });
+    runtime:sleep(2);
+    // The last message completes while the slow one is still being processed when the listener is closed.
+    _ = check newClient->publishMessage({ content: "slow".toBytes(), subject: CHECKPOINT_OUT_OF_ORDER_SUBJECT_NAME });
+    _ = check newClient->publishMessage({ content: "fast".toBytes(), subject: CHECKPOINT_OUT_OF_ORDER_SUBJECT_NAME });
+    runtime:sleep(1);
+    check sub.close();
+    test:assertEquals(countCheckpointOutOfOrderMessages("fast"), 1, msg = "Message count does not match.");
+
+    Listener resumedSub = check new(DEFAULT_URL, checkpoint = { directory: checkpointDirectory });
+    check resumedSub.attach(checkpointOutOfOrderService);
+    check resumedSub.'start();
+    runtime:sleep(5);
+    test:assertEquals(countCheckpointOutOfOrderMessages("first"), 1, msg = "Processed message is replayed.");
+    test:assertEquals(countCheckpointOutOfOrderMessages("slow"), 2,
+                      msg = "Unfinished message is skipped by the checkpoint.");
+    test:assertEquals(countCheckpointOutOfOrderMessages("fast"), 2,
+                      msg = "Message completed ahead of the checkpoint is not replayed.");
+    check newClient.close();
+    check resumedSub.close();
+    return;
+}
+
+@test:Config {
+    dependsOn: [testProducer],
+    groups: ["nats-streaming"]
+}
+function testConsumerServiceWithDeduplication() returns error? {
+    string message = "Testing Consumer Service With Deduplication";
+    Listener sub = check new(DEFAULT_URL);
+    Client newClient = check new(DEFAULT_URL);
+    check sub.attach(deduplicationService);
+    check sub.'start();
+    _ = check newClient->publishMessage({ content: message.toBytes(), subject: DEDUPLICATION_SUBJECT_NAME });
+    runtime:sleep(5);
+    test:assertEquals(receivedDeduplicatedMessageCount, 1, msg = "Redelivered message is processed again.");
+    check newClient.close();
+    check sub.close();
+    return;
+}
+
+@test:Config {
+    dependsOn: [testProducer],
+    groups: ["nats-streaming"]
+}
+function testConsumerServiceWithDeadLetterSubject() returns error? {
+    string message = "Testing Consumer Service With Dead Letter Subject";
+    Listener sub = check new(DEFAULT_URL);
+    Client newClient = check new(DEFAULT_URL);
+    check sub.attach(poisonService);
+    check sub.attach(deadLetterService);
+    check sub.'start();
+    _ = check newClient->publishMessage({ content: message.toBytes(), subject: POISON_SUBJECT_NAME });
+    runtime:sleep(8);
+    test:assertEquals(receivedPoisonMessageCount, 2, msg = "Message is not dead-lettered after the redeliveries.");
+    test:assertEquals(receivedDeadLetterMessage, message, msg = "Dead-lettered message does not match.");
+    check newClient.close();
+    check sub.close();
+    return;
+}
+
+@test:Config {
+    dependsOn: [testProducer],
+    groups: ["nats-streaming"]
+}
+function testConsumerServiceWithOnError() returns error? {
+    string message = "Testing Consumer Service With OnError";
+    Listener sub = check new(DEFAULT_URL);
+    Client newClient = check new(DEFAULT_URL);
+    check sub.attach(onErrorService);
+    check sub.'start();
+    _ = check newClient->publishMessage({ content: message.toBytes(), subject: ON_ERROR_SUBJECT_NAME });
+    runtime:sleep(5);
+    test:assertEquals(receivedOnErrorMessage, "Cannot process the message",
+                      msg = "Error received does not match.");
+    check newClient.close();
+    check sub.close();
+    return;
+}
+
+@test:Config {
+    dependsOn: [testProducer],
+    groups: ["nats-streaming"]
+}
+function testConsumerServiceGracefulStop() returns error? {
+    string message = "Testing Consumer Service Graceful Stop";
+    Listener sub = check new(DEFAULT_URL);
+    Client newClient = check new(DEFAULT_URL);
+    check sub.attach(gracefulStopService);
+    check sub.'start();
+    _ = check newClient->publishMessage({ content: message.toBytes(), subject: GRACEFUL_STOP_SUBJECT_NAME });
+    runtime:sleep(1);
+    check sub.gracefulStop();
+    test:assertTrue(gracefulStopMessageProcessed, msg = "Listener stopped before the message was processed.");
+    check newClient.close();
+    return;
+}
+
+@test:Config {
+    dependsOn: [testProducer],
+    groups: ["nats-streaming"]
+}
+function testConsumerServiceWithAdaptiveConcurrency() returns error? {
+    Listener sub = check new(DEFAULT_URL);
+    Client newClient = check new(DEFAULT_URL);
+    check sub.attach(adaptiveService);
+    check sub.'start();
+    foreach int i in 1 ... 10 {
+        _ = check newClient->publishMessage({ content: i.toString().toBytes(), subject: ADAPTIVE_SUBJECT_NAME });
+    }
+    runtime:sleep(5);
+    test:assertEquals(getAdaptiveMessageCount(), 10, msg = "Not all the messages are received.");
+    check newClient.close();
+    check sub.close();
+    return;
+}
+
+@test:Config {
+    dependsOn: [testProducer],
+    groups: ["nats-streaming"]
+}
+function testConsumerServiceWithFilter() returns error? {
+    Listener sub = check new(DEFAULT_URL);
+    Client newClient = check new(DEFAULT_URL);
+    check sub.attach(filterService);
+    check sub.'start();
+    foreach string message in ["keep:1", "drop:1", "keep:2"] {
+        _ = check newClient->publishMessage({ content: message.toBytes(), subject: FILTER_SUBJECT_NAME });
+    }
+    runtime:sleep(5);
+    test:assertEquals(filteredServiceMessages, ["keep:1", "keep:2"], msg = "Messages received do not match.");
+    check newClient.close();
+    check sub.close();
+    return;
+}
+
+@test:Config {
+    dependsOn: [testProducer],
+    groups: ["nats-streaming"]
+}
+function testConsumerStream() returns error? {
+    Client newClient = check new(DEFAULT_URL);
+    stream<Message, Error?> messages = check newClient->subscribe(STREAM_SUBJECT_NAME, maxInFlight = 2,
+                                                                  pollTimeout = 2);
+    foreach int i in 1 ... 5 {
+        _ = check newClient->publishMessage({ content: i.toString().toBytes(), subject: STREAM_SUBJECT_NAME });
+    }
+    string[] received = check from Message message in messages
+        select check 'string:fromBytes(message.content);
+    test:assertEquals(received, ["1", "2", "3", "4", "5"], msg = "Messages received through the stream do not match.");
+    check messages.close();
+    check newClient.close();
+    return;
+}
+
 @test:Config {
     dependsOn: [testProducer],
     groups: ["nats-streaming"]
@@ -160,6 +495,78 @@ function testInvalidConsumerService() returns error? {
 }
 
 
+@test:Config {
+    dependsOn: [testBatchProducer],
+    groups: ["nats-streaming"]
+}
+function testBatchConsumerService() returns error? {
+    Listener sub = check new(DEFAULT_URL);
+    Client newClient = check new(DEFAULT_URL);
+    check sub.attach(batchService);
+    check sub.'start();
+    Message[] messages = [];
+    foreach int i in 0 ..< 5 {
+        messages.push({ content: ("Testing Batch Consumer Service " + i.toString()).toBytes(),
+                        subject: BATCH_SUBJECT_NAME });
+    }
+    (string|Error)[] results = newClient->publishMessages(messages);
+    foreach string|Error result in results {
+        test:assertTrue(result is string, msg = "Producing a batch of messages to the broker caused an error.");
+    }
+    runtime:sleep(5);
+    test:assertEquals(receivedBatchMessageCount, messages.length(), msg = "Message count does not match.");
+    check newClient.close();
+    check sub.close();
+    return;
+}
+
+@test:Config {
+    dependsOn: [testProducer],
+    groups: ["nats-streaming"]
+}
+function testKeyOrderedConsumerService() returns error? {
+    Listener sub = check new(DEFAULT_URL);
+    Client newClient = check new(DEFAULT_URL);
+    check sub.attach(orderedService);
+    check sub.'start();
+    foreach int i in 1 ... 3 {
+        foreach string key in ["a", "b"] {
+            _ = check newClient->publishMessage({ content: (key + ":" + i.toString()).toBytes(),
+                                                  subject: ORDERED_SUBJECT_NAME });
+        }
+    }
+    runtime:sleep(5);
+    string[] received = getOrderedMessages();
+    test:assertEquals(received.filter(m => m.startsWith("a:")), ["a:1", "a:2", "a:3"],
+                      msg = "Messages of a key are not received in order.");
+    test:assertEquals(received.filter(m => m.startsWith("b:")), ["b:1", "b:2", "b:3"],
+                      msg = "Messages of a key are not received in order.");
+    check newClient.close();
+    check sub.close();
+    return;
+}
+
+@test:Config {
+    dependsOn: [testProducer],
+    groups: ["nats-streaming"]
+}
+function testConsumerServiceWithCompression() returns error? {
+    string message = "Testing Compressed Consumer Service ";
+    foreach int i in 0 ..< 6 {
+        message += message;
+    }
+    Listener sub = check new(DEFAULT_URL, compression = {});
+    Client newClient = check new(DEFAULT_URL, compression = { threshold: 64 });
+    check sub.attach(compressedService);
+    check sub.'start();
+    _ = check newClient->publishMessage({ content: message.toBytes(), subject: COMPRESSED_SUBJECT_NAME });
+    runtime:sleep(5);
+    test:assertEquals(receivedCompressedMessage, message, msg = "Message received does not match.");
+    check newClient.close();
+    check sub.close();
+    return;
+}
+
 @test:Config {
    groups: ["nats-streaming"]
 }
@@ -355,6 +762,167 @@ service object {
     }
 };
 
+Service deferredAckService =
+@ServiceConfig {
+    subject: DEFERRED_ACK_SUBJECT_NAME,
+    autoAck: false,
+    ackBatchSize: 2,
+    ackFlushInterval: 10
+}
+service object {
+    remote function onMessage(Message msg, Caller caller) returns error? {
+        receivedDeferredAckMessageCount += 1;
+        check caller->deferAck();
+        return;
+    }
+};
+
+Service deliveryInfoService =
+@ServiceConfig {
+    subject: DELIVERY_INFO_SUBJECT_NAME,
+    includeDeliveryInfo: true
+}
+service object {
+    remote function onMessage(Message msg) {
+        receivedSequence = msg?.sequence;
+        receivedRedelivered = msg?.redelivered;
+    }
+};
+
+Service checkpointService =
+@ServiceConfig {
+    subject: CHECKPOINT_SUBJECT_NAME,
+    startPosition: FIRST
+}
+service object {
+    remote function onMessage(Message msg) {
+        receivedCheckpointMessageCount += 1;
+    }
+};
+
+Service checkpointBreakerService =
+@ServiceConfig {
+    subject: CHECKPOINT_BREAKER_SUBJECT_NAME,
+    startPosition: FIRST,
+    filter: { contentPrefix: "keep:" },
+    circuitBreaker: { requestVolumeThreshold: 1, resetTime: 60 }
+}
+service object {
+    remote function onMessage(Message msg) returns error? {
+        string messageContent = check 'string:fromBytes(msg.content);
+        checkpointBreakerMessages.push(messageContent);
+        if messageContent == "keep:fail" {
+            return error("Cannot process the message");
+        }
+    }
+};
+
+// Processes the messages concurrently, recording each one as it is dispatched.
+Service checkpointOutOfOrderService =
+@ServiceConfig {
+    subject: CHECKPOINT_OUT_OF_ORDER_SUBJECT_NAME
+}
+isolated service object {
+    isolated remote function onMessage(Message msg) returns error? {
+        string messageContent = check 'string:fromBytes(msg.content);
+        addCheckpointOutOfOrderMessage(messageContent);
+        if messageContent == "slow" {
+            runtime:sleep(3);
+        }
+    }
+};
+
+// Never acknowledges, so the server redelivers the message after the `ackWait`.
+Service deduplicationService =
+@ServiceConfig {
+    subject: DEDUPLICATION_SUBJECT_NAME,
+    autoAck: false,
+    ackWait: 1,
+    deduplication: {}
+}
+service object {
+    remote function onMessage(Message msg, Caller caller) {
+        receivedDeduplicatedMessageCount += 1;
+    }
+};
+
+Service poisonService =
+@ServiceConfig {
+    subject: POISON_SUBJECT_NAME,
+    autoAck: false,
+    ackWait: 1,
+    maxRedeliveries: 1,
+    deadLetterSubject: DEAD_LETTER_SUBJECT_NAME
+}
+service object {
+    remote function onMessage(Message msg, Caller caller) returns error? {
+        receivedPoisonMessageCount += 1;
+        return error("Cannot process the message");
+    }
+};
+
+Service deadLetterService =
+@ServiceConfig {
+    subject: DEAD_LETTER_SUBJECT_NAME
+}
+service object {
+    remote function onMessage(Message msg) returns error? {
+        receivedDeadLetterMessage = check 'string:fromBytes(msg.content);
+    }
+};
+
+Service onErrorService =
+@ServiceConfig {
+    subject: ON_ERROR_SUBJECT_NAME,
+    circuitBreaker: {}
+}
+service object {
+    remote function onMessage(Message msg) returns error? {
+        return error("Cannot process the message");
+    }
+
+    remote function onError(readonly & Message msg, Error err) {
+        receivedOnErrorMessage = err.message();
+    }
+};
+
+Service gracefulStopService =
+@ServiceConfig {
+    subject: GRACEFUL_STOP_SUBJECT_NAME
+}
+service object {
+    remote function onMessage(Message msg) {
+        runtime:sleep(3);
+        gracefulStopMessageProcessed = true;
+    }
+};
+
+Service filterService =
+@ServiceConfig {
+    subject: FILTER_SUBJECT_NAME,
+    filter: { contentPrefix: "keep:" }
+}
+service object {
+    remote function onMessage(Message msg) {
+        string|error messageContent = 'string:fromBytes(msg.content);
+        if messageContent is string {
+            filteredServiceMessages.push(messageContent);
+        }
+    }
+};
+
+Service adaptiveService =
+@ServiceConfig {
+    subject: ADAPTIVE_SUBJECT_NAME,
+    adaptiveConcurrency: { minInFlight: 2, latencyTarget: 0.5 }
+}
+isolated service object {
+    isolated remote function onMessage(Message msg) {
+        runtime:sleep(0.1);
+        incrementAdaptiveMessageCount();
+    }
+};
+
 Service ackNegativeService =
 @ServiceConfig {
     subject: ACK_SUBJECT_NAME
@@ -445,3 +1013,45 @@ service object {
          }
     }
 };
+
+Service batchService =
+@ServiceConfig {
+    subject: BATCH_SUBJECT_NAME,
+    autoAck: false,
+    maxBatchSize: 2,
+    batchLinger: 0.5
+}
+service object {
+    remote function onMessages(Message[] messages, Caller caller) returns error? {
+        receivedBatchMessageCount += messages.length();
+        check caller->ack();
+        return;
+    }
+};
+
+Service compressedService =
+@ServiceConfig {
+    subject: COMPRESSED_SUBJECT_NAME
+}
+service object {
+    remote function onMessage(Message msg, Caller caller) {
+        string|error messageContent = 'string:fromBytes(msg.content);
+        if messageContent is string {
+            receivedCompressedMessage = messageContent;
+        }
+    }
+};
+
+Service orderedService =
+@ServiceConfig {
+    subject: ORDERED_SUBJECT_NAME,
+    orderingKey: { delimiter: 58, lanes: 4 }
+}
+service object {
+    remote function onMessage(Message msg, Caller caller) {
+        string|error messageContent = 'string:fromBytes(msg.content);
+        if messageContent is string {
+            addOrderedMessage(messageContent);
+        }
+    }
+};
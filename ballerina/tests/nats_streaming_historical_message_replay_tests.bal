@@ -20,11 +20,13 @@ import ballerina/log;
 import ballerina/test;
 
 const START_POSITION_SUBJECT_NAME = "nats-streaming-start-position";
+const PARTITIONED_REPLAY_SUBJECT_NAME = "nats-streaming-partitioned-replay";
 
 string receivedStartPositionFirstMessages = "";
 string receviedStartPositionLastReceivedMessages = "";
 string receivedStartPositionTimeDeltaMessages = "";
 string receivedStartPositionSequenceNumberMessages = "";
+string[] receivedPartitionedReplayMessages = [];
 
 @test:Config {
     groups: ["nats-streaming"]
@@ -71,6 +73,40 @@ function testConsumerServicesWithHistoricalMessageReplay() returns error? {
     return;
 }
 
+@test:Config {
+    groups: ["nats-streaming"]
+}
+function testConsumerServiceWithPartitionedReplay() returns error? {
+    Listener sub = check new(DEFAULT_URL);
+    Client newClient = check new(DEFAULT_URL);
+    foreach int i in 1 ... 6 {
+        _ = check newClient->publishMessage({ content: i.toString().toBytes(),
+                                              subject: PARTITIONED_REPLAY_SUBJECT_NAME });
+    }
+    check sub.attach(partitionedReplayService);
+    check sub.'start();
+    runtime:sleep(5);
+    test:assertEquals(receivedPartitionedReplayMessages.sort(), ["2", "3", "4", "5"],
+                      msg = "Messages replayed do not match.");
+    check newClient.close();
+    check sub.close();
+    return;
+}
+
+Service partitionedReplayService =
+@ServiceConfig {
+    subject: PARTITIONED_REPLAY_SUBJECT_NAME,
+    replay: { startSequence: 2, endSequence: 5, partitions: 2 }
+}
+service object {
+    remote function onMessage(Message msg, Caller caller) {
+        string|error messageContent = 'string:fromBytes(msg.content);
+        if messageContent is string {
+            receivedPartitionedReplayMessages.push(messageContent);
+        }
+    }
+};
+
 Service startPositionLastReceivedService =
 @ServiceConfig {
     subject: START_POSITION_SUBJECT_NAME,
@@ -85,3 +85,80 @@ isolated function testProducerWithMultipleServers() returns error? {
     test:assertTrue(result is string, msg = "Producing a message to the broker caused an error.");
     return;
 }
+
+@test:Config {
+    dependsOn: [testProducer],
+    groups: ["nats-streaming"]
+}
+isolated function testBatchProducer() returns error? {
+    Client con = check new(DEFAULT_URL);
+    Message[] messages = [];
+    foreach int i in 0 ..< 10 {
+        messages.push({ content: ("Hello World " + i.toString()).toBytes(), subject: SUBJECT_NAME });
+    }
+    (string|Error)[] results = con->publishMessages(messages);
+    test:assertEquals(results.length(), messages.length(), msg = "Result count does not match the batch size.");
+    foreach string|Error result in results {
+        test:assertTrue(result is string, msg = "Producing a batch of messages to the broker caused an error.");
+    }
+    check con.close();
+    return;
+}
+
+@test:Config {
+    dependsOn: [testProducer],
+    groups: ["nats-streaming"]
+}
+isolated function testPooledProducer() returns error? {
+    Client con = check new(DEFAULT_URL, connectionPoolSize = 3);
+    Message[] messages = [];
+    foreach int i in 0 ..< 10 {
+        messages.push({ content: ("Hello World " + i.toString()).toBytes(), subject: SUBJECT_NAME + i.toString() });
+    }
+    (string|Error)[] results = con->publishMessages(messages);
+    foreach string|Error result in results {
+        test:assertTrue(result is string, msg = "Producing through a connection pool caused an error.");
+    }
+    check con.close();
+    return;
+}
+
+@test:Config {
+    dependsOn: [testProducer],
+    groups: ["nats-streaming"]
+}
+isolated function testProducerWithVirtualThreads() returns error? {
+    // The tests run on the Java 11 runtime of the distribution, which has no virtual threads.
+    Client|Error con = new(DEFAULT_URL, virtualThreads = true);
+    if con is Client {
+        check con.close();
+        test:assertFail("Creating a client with virtual threads on Java 11 did not fail.");
+    }
+    test:assertTrue(con.message().includes("virtual threads require Java 21 or later"),
+                    msg = "Error message does not match: " + con.message());
+    return;
+}
+
+@test:Config {
+    dependsOn: [testProducer],
+    groups: ["nats-streaming"]
+}
+isolated function testProducerWithUnknownCompression() {
+    Client|Error con = new(DEFAULT_URL, compression = { algorithm: "ZSTD" });
+    if con is Client {
+        test:assertFail("Creating a client with an unregistered codec did not fail.");
+    }
+    test:assertEquals(con.message(), "Unsupported compression algorithm: ZSTD", msg = "Error message does not match.");
+}
+
+@test:Config {
+    dependsOn: [testProducer],
+    groups: ["nats-streaming"]
+}
+isolated function testProducerWithOutbox() returns error? {
+    Client con = check new(DEFAULT_URL, outbox = { directory: "build/stan-outbox", fsync: FSYNC_ALWAYS });
+    string|Error result = con->publishMessage({ content: "Hello World".toBytes(), subject: SUBJECT_NAME });
+    test:assertTrue(result is string, msg = "Producing a message with an outbox caused an error.");
+    check con.close();
+    return;
+}
@@ -25,6 +25,7 @@ public class PluginConstants {
     // compiler plugin constants
     public static final String PACKAGE_PREFIX = "stan";
     public static final String ON_MESSAGE_FUNC = "onMessage";
+    public static final String ON_MESSAGES_FUNC = "onMessages";
     public static final String ON_ERROR_FUNC = "onError";
     public static final String PACKAGE_ORG = "ballerinax";
 
@@ -44,7 +45,7 @@ public class PluginConstants {
      * Compilation errors.
      */
     enum CompilationErrors {
-        NO_ON_MESSAGE("Service must have remote method onMessage.",
+        NO_ON_MESSAGE("Service must have remote method onMessage or onMessages.",
                 "STAN_101"),
         INVALID_REMOTE_FUNCTION("Invalid remote method.", "STAN_102"),
         FUNCTION_SHOULD_BE_REMOTE("Method must have the remote qualifier.", "STAN_103"),
@@ -75,7 +76,18 @@ public class PluginConstants {
         INVALID_SERVICE_ATTACH_POINT("Invalid service attach point. Only string literals are allowed.",
                 "STAN_117"),
         DEPRECATION_WARNING("The ballerinax/stan module is being deprecated. NATS enabled applications requiring " +
-                "persistence should use the JetStreamClient provided by ballerinax/nats module.", "STAN_118");
+                "persistence should use the JetStreamClient provided by ballerinax/nats module.", "STAN_118"),
+        ON_MESSAGE_AND_ON_MESSAGES("Service must have only one of the remote methods onMessage and onMessages.",
+                "STAN_119"),
+        MUST_HAVE_MESSAGES("Must have the method parameter stan:Message[].", "STAN_120"),
+        INVALID_FUNCTION_PARAM_MESSAGES("Invalid method parameter. Only stan:Message[] is allowed.",
+                "STAN_121"),
+        ONLY_PARAMS_ALLOWED_ON_MESSAGES("Invalid method parameter count. Only stan:Message[] and stan:Caller are " +
+                "allowed.", "STAN_122"),
+        READONLY_MESSAGES_NOT_SUPPORTED("Invalid method parameter. A readonly batch is not supported, " +
+                "use stan:Message[] instead.", "STAN_123"),
+        ON_ERROR_WITH_ON_MESSAGES("Remote method onError is not supported along with onMessages. Handle the " +
+                "error returned by onMessages instead.", "STAN_124");
 
         private final String error;
         private final String errorCode;
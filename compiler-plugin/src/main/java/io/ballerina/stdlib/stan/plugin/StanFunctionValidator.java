@@ -19,6 +19,7 @@
 package io.ballerina.stdlib.stan.plugin;
 
 import io.ballerina.compiler.api.SemanticModel;
+import io.ballerina.compiler.api.symbols.ArrayTypeSymbol;
 import io.ballerina.compiler.api.symbols.IntersectionTypeSymbol;
 import io.ballerina.compiler.api.symbols.MethodSymbol;
 import io.ballerina.compiler.api.symbols.ModuleSymbol;
@@ -55,13 +56,15 @@ public class StanFunctionValidator {
     private final SyntaxNodeAnalysisContext context;
     private final ServiceDeclarationNode serviceDeclarationNode;
     FunctionDefinitionNode onMessage;
+    FunctionDefinitionNode onMessages;
     FunctionDefinitionNode onError;
 
     public StanFunctionValidator(SyntaxNodeAnalysisContext context, FunctionDefinitionNode onMessage,
-                                 FunctionDefinitionNode onError) {
+                                 FunctionDefinitionNode onMessages, FunctionDefinitionNode onError) {
         this.context = context;
         this.serviceDeclarationNode = (ServiceDeclarationNode) context.node();
         this.onMessage = onMessage;
+        this.onMessages = onMessages;
         this.onError = onError;
     }
 
@@ -70,15 +73,26 @@ public class StanFunctionValidator {
         if (Objects.nonNull(onMessage)) {
             validateOnMessage();
         }
+        if (Objects.nonNull(onMessages)) {
+            validateOnMessages();
+        }
         if (Objects.nonNull(onError)) {
             validateOnError();
+            if (Objects.nonNull(onMessages)) {
+                // The failures of a batch are not handed to onError, which takes a single message.
+                context.reportDiagnostic(PluginUtils.getDiagnostic(CompilationErrors.ON_ERROR_WITH_ON_MESSAGES,
+                        DiagnosticSeverity.ERROR, onError.functionSignature().location()));
+            }
         }
     }
 
     private void validateMandatoryFunction() {
-        if (Objects.isNull(onMessage)) {
+        if (Objects.isNull(onMessage) && Objects.isNull(onMessages)) {
             context.reportDiagnostic(PluginUtils.getDiagnostic(CompilationErrors.NO_ON_MESSAGE,
                     DiagnosticSeverity.ERROR, serviceDeclarationNode.location()));
+        } else if (Objects.nonNull(onMessage) && Objects.nonNull(onMessages)) {
+            context.reportDiagnostic(PluginUtils.getDiagnostic(CompilationErrors.ON_MESSAGE_AND_ON_MESSAGES,
+                    DiagnosticSeverity.ERROR, serviceDeclarationNode.location()));
         }
     }
 
@@ -93,6 +107,17 @@ public class StanFunctionValidator {
         validateReturnTypeErrorOrNil(onMessage);
     }
 
+    private void validateOnMessages() {
+        if (!PluginUtils.isRemoteFunction(context, onMessages)) {
+            context.reportDiagnostic(PluginUtils.getDiagnostic(
+                    CompilationErrors.FUNCTION_SHOULD_BE_REMOTE,
+                    DiagnosticSeverity.ERROR, onMessages.functionSignature().location()));
+        }
+        SeparatedNodeList<ParameterNode> parameters = onMessages.functionSignature().parameters();
+        validateBatchFunctionParameters(parameters, onMessages);
+        validateReturnTypeErrorOrNil(onMessages);
+    }
+
     private void validateOnError() {
         if (!PluginUtils.isRemoteFunction(context, onError)) {
             context.reportDiagnostic(PluginUtils.getDiagnostic(
@@ -122,6 +147,24 @@ public class StanFunctionValidator {
         }
     }
 
+    private void validateBatchFunctionParameters(SeparatedNodeList<ParameterNode> parameters,
+                                                 FunctionDefinitionNode functionDefinitionNode) {
+        if (parameters.size() == 1) {
+            validateMessagesParam(parameters.get(0));
+        } else if (parameters.size() == 2) {
+            validateMessagesParam(parameters.get(0));
+            validateSecondParam(parameters.get(1));
+        }
+        if (parameters.size() < 1) {
+            context.reportDiagnostic(PluginUtils.getDiagnostic(CompilationErrors.MUST_HAVE_MESSAGES,
+                    DiagnosticSeverity.ERROR, functionDefinitionNode.functionSignature().location()));
+        }
+        if (parameters.size() > 2) {
+            context.reportDiagnostic(PluginUtils.getDiagnostic(CompilationErrors.ONLY_PARAMS_ALLOWED_ON_MESSAGES,
+                    DiagnosticSeverity.ERROR, functionDefinitionNode.functionSignature().location()));
+        }
+    }
+
     private void validateOnErrorFunctionParameters(SeparatedNodeList<ParameterNode> parameters,
                                                    FunctionDefinitionNode functionDefinitionNode) {
         if (parameters.size() > 1) {
@@ -163,6 +206,45 @@ public class StanFunctionValidator {
         }
     }
 
+    private void validateMessagesParam(ParameterNode parameterNode) {
+        RequiredParameterNode requiredParameterNode = (RequiredParameterNode) parameterNode;
+        SemanticModel semanticModel = context.semanticModel();
+        Optional<Symbol> symbol = semanticModel.symbol(requiredParameterNode);
+        if (symbol.isPresent()) {
+            ParameterSymbol parameterSymbol = (ParameterSymbol) symbol.get();
+            boolean validFlag = false;
+            if (parameterSymbol.typeDescriptor().typeKind() == TypeDescKind.ARRAY) {
+                // (stan:Message[] - valid, stan:Caller[] - invalid)
+                TypeSymbol memberType = ((ArrayTypeSymbol) parameterSymbol.typeDescriptor()).memberTypeDescriptor();
+                validFlag = memberType.typeKind() == TypeDescKind.TYPE_REFERENCE &&
+                        isValidParamTypeMessage((TypeReferenceTypeSymbol) memberType);
+            } else if (isReadonlyArray(parameterSymbol.typeDescriptor())) {
+                // (readonly & stan:Message[] - invalid, as the batch is dispatched as a mutable array)
+                context.reportDiagnostic(PluginUtils.getDiagnostic(
+                        CompilationErrors.READONLY_MESSAGES_NOT_SUPPORTED,
+                        DiagnosticSeverity.ERROR, requiredParameterNode.location()));
+                return;
+            }
+            if (!validFlag) {
+                context.reportDiagnostic(PluginUtils.getDiagnostic(
+                        CompilationErrors.INVALID_FUNCTION_PARAM_MESSAGES,
+                        DiagnosticSeverity.ERROR, requiredParameterNode.location()));
+            }
+        }
+    }
+
+    private boolean isReadonlyArray(TypeSymbol typeSymbol) {
+        if (typeSymbol.typeKind() != TypeDescKind.INTERSECTION) {
+            return false;
+        }
+        for (TypeSymbol member : ((IntersectionTypeSymbol) typeSymbol).memberTypeDescriptors()) {
+            if (member.typeKind() == TypeDescKind.ARRAY) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void validateIntersectionType(IntersectionTypeSymbol intersectionTypeSymbol,
                                           RequiredParameterNode requiredParameterNode) {
         // (readonly & stan:Message - valid, readonly & stan:Client - invalid)
@@ -49,6 +49,7 @@ public class StanServiceValidator {
         NodeList<Node> memberNodes = serviceDeclarationNode.members();
         validateAttachPoint(context);
         FunctionDefinitionNode onMessage = null;
+        FunctionDefinitionNode onMessages = null;
         FunctionDefinitionNode onError = null;
 
         for (Node node : memberNodes) {
@@ -59,6 +60,8 @@ public class StanServiceValidator {
                 if (functionName.isPresent()) {
                     if (functionName.get().equals(PluginConstants.ON_MESSAGE_FUNC)) {
                         onMessage = functionDefinitionNode;
+                    } else if (functionName.get().equals(PluginConstants.ON_MESSAGES_FUNC)) {
+                        onMessages = functionDefinitionNode;
                     } else if (functionName.get().equals(PluginConstants.ON_ERROR_FUNC)) {
                         onError = functionDefinitionNode;
                     } else if (PluginUtils.isRemoteFunction(context, functionDefinitionNode)) {
@@ -71,7 +74,7 @@ public class StanServiceValidator {
                         DiagnosticSeverity.ERROR, node.location()));
             }
         }
-        new StanFunctionValidator(context, onMessage, onError).validate();
+        new StanFunctionValidator(context, onMessage, onMessages, onError).validate();
     }
 
     private void validateAttachPoint(SyntaxNodeAnalysisContext context) {
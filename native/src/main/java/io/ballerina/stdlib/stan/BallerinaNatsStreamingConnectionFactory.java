@@ -33,6 +33,7 @@ import io.nats.streaming.StreamingConnection;
 import io.nats.streaming.StreamingConnectionFactory;
 
 import java.io.FileInputStream;
+import java.lang.reflect.Method;
 import java.security.KeyStore;
 import java.security.PrivateKey;
 import java.security.SecureRandom;
@@ -40,6 +41,8 @@ import java.security.cert.X509Certificate;
 import java.time.Duration;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.net.ssl.KeyManager;
 import javax.net.ssl.KeyManagerFactory;
@@ -65,6 +68,7 @@ public class BallerinaNatsStreamingConnectionFactory {
     private static final BString MAX_PUB_ACKS_IN_FLIGHT = StringUtils.fromString("maxPubAcksInFlight");
     private static final BString DISCOVERY_PREFIX = StringUtils.fromString("discoverPrefix");
     private static final BString PING_INTERVAL = StringUtils.fromString("pingInterval");
+    private static final BString VIRTUAL_THREADS = StringUtils.fromString("virtualThreads");
 
     public BallerinaNatsStreamingConnectionFactory(Object url, String clusterId, String clientId,
                                                    BMap<BString, Object> streamingConfig) {
@@ -120,6 +124,14 @@ public class BallerinaNatsStreamingConnectionFactory {
             opts.pubAckWait(Duration.ofSeconds(((BDecimal) streamingConfig.get(ACK_TIMEOUT)).intValue()));
             opts.pingInterval(Duration.ofSeconds(((BDecimal) streamingConfig.get(PING_INTERVAL)).intValue()));
             opts.maxPubAcksInFlight(streamingConfig.getIntValue(MAX_PUB_ACKS_IN_FLIGHT).intValue());
+            if (streamingConfig.containsKey(VIRTUAL_THREADS) && streamingConfig.getBooleanValue(VIRTUAL_THREADS)) {
+                ExecutorService executor = createVirtualThreadExecutor();
+                if (executor == null) {
+                    throw new UnsupportedOperationException("virtual threads require Java 21 or later, while the " +
+                                                                    "runtime is Java " + Runtime.version().feature());
+                }
+                natsOptions.executor(executor);
+            }
         }
 
         Connection natsConnection = Nats.connect(natsOptions.build());
@@ -130,6 +142,18 @@ public class BallerinaNatsStreamingConnectionFactory {
         return streamingConnectionFactory.createConnection();
     }
 
+    // The module is built for runtimes without virtual threads, so the executor is looked up reflectively, and is
+    // null on those runtimes. A virtual thread executor keeps no idle threads, hence it does not need to be shut
+    // down along with the connection.
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
     private static SSLContext getSslContext(BMap<BString, ?> secureSocket) throws Exception {
         // protocol
         String protocol = null;
@@ -34,11 +34,29 @@ public class Constants {
 
     public static final String NATS_METRIC_UTIL = "nats_metric_util";
 
+    // Represents the local disk spool of a NATS streaming client.
+    public static final String NATS_STREAMING_OUTBOX = "nats_streaming_outbox";
+
+    // Represents the connections of a NATS streaming client, which publishes through more than one when pooled.
+    public static final String NATS_STREAMING_PUBLISHER_POOL = "nats_streaming_publisher_pool";
+
+    // Represents the payload compression of a NATS streaming client or listener.
+    public static final String NATS_STREAMING_COMPRESSION = "nats_streaming_compression";
+    public static final BString COMPRESSION_CONFIG = StringUtils.fromString("compression");
+
+    // Represents the local checkpoint store of a NATS streaming listener.
+    public static final String NATS_STREAMING_CHECKPOINT_STORE = "nats_streaming_checkpoint_store";
+
+    // Represents the subscriptions consumed as streams through a NATS streaming client.
+    public static final String NATS_STREAMING_PULL_SUBSCRIPTION = "nats_streaming_pull_subscription";
+    public static final String NATS_STREAMING_PULL_SUBSCRIPTIONS = "nats_streaming_pull_subscriptions";
+
     // Error code for i/o.
     static final String NATS_ERROR = "Error";
 
     // Represents the NATS Streaming message.
     public static final String NATS_STREAMING_MSG = "nats_streaming_message";
+    public static final String NATS_STREAMING_MSG_BATCH = "nats_streaming_message_batch";
 
     public static final String NATS_STREAMING_SUBSCRIPTION_ANNOTATION = "ServiceConfig";
     public static final BString NATS_STREAMING_MANUAL_ACK = StringUtils.fromString("autoAck");
@@ -46,10 +64,19 @@ public class Constants {
     public static final String NATS_STREAMING_MESSAGE_OBJ_NAME = "Message";
     public static final String MESSAGE_CONTENT = "content";
     public static final String MESSAGE_SUBJECT = "subject";
+    public static final String MESSAGE_SEQUENCE = "sequence";
+    public static final String MESSAGE_TIMESTAMP = "timestamp";
+    public static final String MESSAGE_REDELIVERED = "redelivered";
     public static final String STREAMING_DISPATCHER_LIST = "StreamingDispatcherList";
     public static final String STREAMING_SUBSCRIPTION_LIST = "StreamingSubscriptionsList";
+    public static final String STREAMING_ACTIVE_LISTENERS = "StreamingActiveListeners";
+    public static final String STREAMING_GRACEFUL_STOP_TIMEOUT = "StreamingGracefulStopTimeout";
+    public static final String STREAMING_LISTENER_CLOSED = "StreamingListenerClosed";
+    public static final String NATS_STREAMING_ACK_COALESCER = "nats_streaming_ack_coalescer";
 
     public static final String ON_MESSAGE_RESOURCE = "onMessage";
+    public static final String ON_MESSAGES_RESOURCE = "onMessages";
+    public static final String ON_ERROR_RESOURCE = "onError";
 
     public static final BString CONNECTION_CONFIG_SECURE_SOCKET = StringUtils.fromString("secureSocket");
     public static final BString KEY = StringUtils.fromString("key");
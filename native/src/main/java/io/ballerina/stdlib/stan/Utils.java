@@ -54,6 +54,11 @@ public class Utils {
                                                 StringUtils.fromString(detailedErrorMessage));
     }
 
+    public static BError createNatsError(String detailedErrorMessage, BError cause) {
+        return ErrorCreator.createDistinctError(Constants.NATS_ERROR, getModule(),
+                                                StringUtils.fromString(detailedErrorMessage), cause);
+    }
+
     public static byte[] convertDataIntoByteArray(Object data) {
         return ((BArray) data).getBytes();
     }
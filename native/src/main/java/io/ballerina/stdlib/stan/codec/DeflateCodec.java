@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * {@link PayloadCodec} based on the JDK {@link Deflater} and {@link Inflater}.
+ */
+public class DeflateCodec implements PayloadCodec {
+    static final byte ID = 1;
+    static final String NAME = "DEFLATE";
+    private static final int BUFFER_SIZE = 4096;
+
+    // Deflaters and inflaters hold native memory, so they are reused by the publishing and dispatching threads
+    // instead of being created for every message.
+    private static final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+    private final ThreadLocal<Deflater> deflaters;
+
+    public DeflateCodec(int level) {
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level));
+    }
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(byte[] data) {
+        Deflater deflater = deflaters.get();
+        deflater.reset();
+        deflater.setInput(data);
+        deflater.finish();
+        ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(data.length / 2, 64));
+        byte[] buffer = new byte[Math.min(BUFFER_SIZE, Math.max(data.length, 64))];
+        while (!deflater.finished()) {
+            int count = deflater.deflate(buffer);
+            output.write(buffer, 0, count);
+        }
+        return output.toByteArray();
+    }
+
+    @Override
+    public byte[] decode(byte[] data, int offset, int length, int originalLength) throws IOException {
+        Inflater inflater = inflaters.get();
+        inflater.reset();
+        inflater.setInput(data, offset, length);
+        byte[] output = new byte[originalLength];
+        try {
+            int position = 0;
+            while (position < originalLength && !inflater.finished()) {
+                int count = inflater.inflate(output, position, originalLength - position);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                position += count;
+            }
+            if (position != originalLength || !inflater.finished()) {
+                throw new IOException("Compressed payload does not match its original length");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        return output;
+    }
+}
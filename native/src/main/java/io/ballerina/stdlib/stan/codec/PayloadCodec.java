@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.codec;
+
+import java.io.IOException;
+
+/**
+ * Encodes the message payloads before publishing and decodes them back before dispatching. Implementations are
+ * registered with {@link PayloadCompression#register(PayloadCodec)} and must be thread safe.
+ */
+public interface PayloadCodec {
+
+    /**
+     * Returns the identifier of the codec, written in the header of the encoded payloads.
+     */
+    byte getId();
+
+    /**
+     * Returns the name of the codec, used to select it in the configuration.
+     */
+    String getName();
+
+    /**
+     * Encodes the given payload.
+     *
+     * @param data The payload.
+     * @return The encoded payload.
+     */
+    byte[] encode(byte[] data);
+
+    /**
+     * Decodes a payload encoded by this codec.
+     *
+     * @param data           The buffer holding the encoded payload.
+     * @param offset         Offset of the encoded payload in the buffer.
+     * @param length         Length of the encoded payload.
+     * @param originalLength Length of the payload before it got encoded.
+     * @return The decoded payload.
+     * @throws IOException If the payload cannot be decoded.
+     */
+    byte[] decode(byte[] data, int offset, int length, int originalLength) throws IOException;
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.codec;
+
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses the published payloads and decompresses the consumed ones, as configured by a
+ * `stan:CompressionConfiguration`.
+ * <p>
+ * A compressed payload starts with a header of a marker, the identifier of the codec and the original length of the
+ * payload, which tells it apart from a plain payload. A payload which merely looks like a compressed one is
+ * delivered as it is when it cannot be decoded.
+ */
+public final class PayloadCompression {
+    private static final BString ALGORITHM = StringUtils.fromString("algorithm");
+    private static final BString THRESHOLD = StringUtils.fromString("threshold");
+    private static final BString LEVEL = StringUtils.fromString("level");
+    private static final byte[] MARKER = {(byte) 0xB7, 'S', 'Z'};
+    private static final int HEADER_SIZE = MARKER.length + Byte.BYTES + Integer.BYTES;
+    // Deflate cannot shrink a payload by more than about 1032 times, which bounds the memory allocated for a payload
+    // which merely looks like a compressed one.
+    private static final long MAX_COMPRESSION_RATIO = 1032;
+    private static final Map<Byte, PayloadCodec> decoders = new ConcurrentHashMap<>();
+    private static final Map<String, PayloadCodec> encoders = new ConcurrentHashMap<>();
+
+    static {
+        register(new DeflateCodec(Deflater.DEFAULT_COMPRESSION));
+    }
+
+    private final PayloadCodec codec;
+    private final int threshold;
+
+    private PayloadCompression(PayloadCodec codec, int threshold) {
+        this.codec = codec;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Registers a codec, so that the clients can select it by its name and the payloads encoded by it are decoded by
+     * the listeners.
+     *
+     * @param codec The codec.
+     */
+    public static void register(PayloadCodec codec) {
+        decoders.put(codec.getId(), codec);
+        encoders.put(codec.getName(), codec);
+    }
+
+    /**
+     * Creates the compression stage described by the given configuration.
+     *
+     * @param compressionConfig The `stan:CompressionConfiguration` record.
+     * @return The compression stage.
+     * @throws IllegalArgumentException If the configuration is not valid.
+     */
+    public static PayloadCompression create(BMap<BString, Object> compressionConfig) {
+        String algorithm = compressionConfig.getStringValue(ALGORITHM).getValue();
+        int threshold = compressionConfig.getIntValue(THRESHOLD).intValue();
+        PayloadCodec codec = encoders.get(algorithm);
+        if (codec == null) {
+            throw new IllegalArgumentException("Unsupported compression algorithm: " + algorithm);
+        }
+        if (DeflateCodec.NAME.equals(algorithm)) {
+            // The level is specific to deflate, so the registered codec only serves the default level.
+            int level = compressionConfig.getIntValue(LEVEL).intValue();
+            if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+                throw new IllegalArgumentException("Invalid compression level: " + level);
+            }
+            return new PayloadCompression(new DeflateCodec(level), threshold);
+        }
+        return new PayloadCompression(codec, threshold);
+    }
+
+    /**
+     * Compresses the payload if it is at least as large as the threshold and compressing actually makes it smaller.
+     *
+     * @param data The payload.
+     * @return The compressed payload with its header or else the given payload.
+     */
+    public byte[] compress(byte[] data) {
+        if (data.length < threshold) {
+            return data;
+        }
+        byte[] encoded = codec.encode(data);
+        if (encoded.length + HEADER_SIZE >= data.length) {
+            return data;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(HEADER_SIZE + encoded.length);
+        payload.put(MARKER);
+        payload.put(codec.getId());
+        payload.putInt(data.length);
+        payload.put(encoded);
+        return payload.array();
+    }
+
+    /**
+     * Decompresses the payload if it carries the header of a registered codec.
+     *
+     * @param data The payload as received.
+     * @return The decompressed payload or else the given payload.
+     */
+    public static byte[] decompress(byte[] data) {
+        if (data.length < HEADER_SIZE || data[0] != MARKER[0] || data[1] != MARKER[1] || data[2] != MARKER[2]) {
+            return data;
+        }
+        PayloadCodec decoder = decoders.get(data[MARKER.length]);
+        int originalLength = ByteBuffer.wrap(data, MARKER.length + Byte.BYTES, Integer.BYTES).getInt();
+        if (decoder == null || originalLength < 0 || originalLength > data.length * MAX_COMPRESSION_RATIO) {
+            return data;
+        }
+        try {
+            return decoder.decode(data, HEADER_SIZE, data.length - HEADER_SIZE, originalLength);
+        } catch (IOException e) {
+            return data;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.consumer;
+
+import io.ballerina.stdlib.stan.observability.NatsMetricsReporter;
+import io.ballerina.stdlib.stan.observability.NatsObservabilityConstants;
+import io.nats.streaming.Message;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues the acknowledgements deferred through the caller of a subscription and sends them together, either once
+ * the configured number of messages is queued or once the oldest queued acknowledgement has waited for the flush
+ * interval. This takes the acknowledgements off the strands of the service.
+ */
+public class AckCoalescer {
+    private static final ScheduledExecutorService flushScheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "stan-ack-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final String url;
+    private final String subject;
+    private final int maxPending;
+    private final long flushIntervalMillis;
+    private final Object lock = new Object();
+    private List<Message> pending;
+    private ScheduledFuture<?> flushTask;
+
+    AckCoalescer(String url, String subject, int maxPending, long flushIntervalMillis) {
+        this.url = url;
+        this.subject = subject;
+        this.maxPending = Math.max(maxPending, 1);
+        this.flushIntervalMillis = Math.max(flushIntervalMillis, 0);
+        this.pending = new ArrayList<>(this.maxPending);
+    }
+
+    /**
+     * Queues the acknowledgement of a message.
+     *
+     * @param message The message.
+     */
+    public void defer(Message message) {
+        defer(Collections.singletonList(message));
+    }
+
+    /**
+     * Queues the acknowledgements of the given messages. The acknowledgements are handed to the flusher thread
+     * right away when the queue fills up, so that the strand of the service is never held by them.
+     *
+     * @param messages The messages.
+     */
+    public void defer(List<Message> messages) {
+        List<Message> ready = null;
+        synchronized (lock) {
+            pending.addAll(messages);
+            if (pending.size() >= maxPending) {
+                ready = takePending();
+            } else if (flushTask == null) {
+                flushTask = flushScheduler.schedule(this::flushPending, flushIntervalMillis,
+                                                    TimeUnit.MILLISECONDS);
+            }
+        }
+        if (ready != null) {
+            List<Message> full = ready;
+            flushScheduler.execute(() -> ackAll(full));
+        }
+    }
+
+    /**
+     * Sends all the queued acknowledgements and waits until they, and the ones handed to the flusher thread
+     * before, are sent.
+     */
+    public void flush() {
+        List<Message> ready;
+        synchronized (lock) {
+            ready = takePending();
+        }
+        try {
+            // The flusher thread sends the acknowledgements in the order they were handed to it.
+            flushScheduler.submit(() -> ackAll(ready)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // The acknowledgements left unsent are redelivered by the server once the ack wait elapses.
+            NatsMetricsReporter.reportStreamingError(url, subject, NatsObservabilityConstants.CONTEXT_CONSUMER,
+                                                     NatsObservabilityConstants.ERROR_TYPE_ACKNOWLEDGEMENT);
+        }
+    }
+
+    // Runs on the flusher thread once the oldest queued acknowledgement has waited for the flush interval.
+    private void flushPending() {
+        List<Message> ready;
+        synchronized (lock) {
+            ready = takePending();
+        }
+        ackAll(ready);
+    }
+
+    // Should be called while holding the lock.
+    private List<Message> takePending() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+        List<Message> ready = pending;
+        pending = new ArrayList<>(maxPending);
+        return ready;
+    }
+
+    private void ackAll(List<Message> messages) {
+        for (Message message : messages) {
+            try {
+                message.ack();
+            } catch (IOException e) {
+                NatsMetricsReporter.reportStreamingError(url, subject, NatsObservabilityConstants.CONTEXT_CONSUMER,
+                                                         NatsObservabilityConstants.ERROR_TYPE_ACKNOWLEDGEMENT);
+            }
+        }
+    }
+}
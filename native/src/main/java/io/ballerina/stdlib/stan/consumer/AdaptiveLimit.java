@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.consumer;
+
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+/**
+ * Concurrency limit of a service, which adapts to the processing latency in an additive-increase,
+ * multiplicative-decrease manner. Starting from the minimum, the limit grows by one for each message processed within
+ * the latency target until it first shrinks, and by one for each limit's worth of such messages afterwards. It shrinks
+ * by the backoff ratio when a message takes longer or the server redelivers a message
+ * after its `ackWait`. The limit shrinks at most once per latency target, so that the messages of one slowdown
+ * do not collapse it. The limit stays within the configured minimum and the `maxInFlight` of the subscription.
+ */
+final class AdaptiveLimit {
+    private static final BString MIN_IN_FLIGHT = StringUtils.fromString("minInFlight");
+    private static final BString LATENCY_TARGET = StringUtils.fromString("latencyTarget");
+    private static final BString BACKOFF_RATIO = StringUtils.fromString("backoffRatio");
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+    private int limit;
+    private int inFlight;
+    private int successes;
+    private long lastDecrease;
+    private boolean slowStart = true;
+
+    private AdaptiveLimit(int minLimit, int maxLimit, long latencyTargetNanos, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = minLimit;
+        this.lastDecrease = System.nanoTime() - latencyTargetNanos;
+    }
+
+    /**
+     * Creates the limit described by a `stan:AdaptiveConcurrency` record.
+     *
+     * @param config      The `stan:AdaptiveConcurrency` record.
+     * @param maxInFlight The `maxInFlight` of the subscription, which caps the limit.
+     * @return The limit.
+     * @throws IllegalArgumentException If the configuration is not valid.
+     */
+    static AdaptiveLimit create(BMap<BString, Object> config, int maxInFlight) {
+        long minInFlight = config.getIntValue(MIN_IN_FLIGHT);
+        long latencyTargetNanos = (long) (((BDecimal) config.get(LATENCY_TARGET)).floatValue() * 1E9);
+        double backoffRatio = config.getFloatValue(BACKOFF_RATIO);
+        if (minInFlight < 1 || minInFlight > maxInFlight || latencyTargetNanos <= 0 || backoffRatio <= 0 ||
+                backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid adaptive concurrency configuration: the minimum in-flight " +
+                                                       "messages should be within [1, maxInFlight], the latency " +
+                                                       "target positive and the backoff ratio within (0, 1)");
+        }
+        return new AdaptiveLimit((int) minInFlight, maxInFlight, latencyTargetNanos, backoffRatio);
+    }
+
+    synchronized void acquire() throws InterruptedException {
+        while (inFlight >= limit) {
+            wait();
+        }
+        inFlight++;
+    }
+
+    synchronized boolean tryAcquire() {
+        if (inFlight >= limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Releases a slot and adapts the limit to the latency of the message which held it.
+     *
+     * @param latencyNanos The processing time of the message, or a negative value if it was not processed.
+     * @return True if the limit changed.
+     */
+    synchronized boolean release(long latencyNanos) {
+        inFlight--;
+        boolean changed = false;
+        if (latencyNanos > latencyTargetNanos) {
+            changed = decrease();
+        } else if (latencyNanos >= 0 && limit < maxLimit && (slowStart || ++successes >= limit)) {
+            successes = 0;
+            limit++;
+            changed = true;
+        }
+        notifyAll();
+        return changed;
+    }
+
+    /**
+     * Shrinks the limit as the server redelivered a message, which was not acknowledged within its `ackWait`.
+     *
+     * @return True if the limit changed.
+     */
+    synchronized boolean onRedelivery() {
+        return decrease();
+    }
+
+    synchronized int getLimit() {
+        return limit;
+    }
+
+    private boolean decrease() {
+        long now = System.nanoTime();
+        if (now - lastDecrease < latencyTargetNanos || limit == minLimit) {
+            return false;
+        }
+        lastDecrease = now;
+        slowStart = false;
+        successes = 0;
+        limit = Math.max(minLimit, (int) (limit * backoffRatio));
+        return true;
+    }
+}
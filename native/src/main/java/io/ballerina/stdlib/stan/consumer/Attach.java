@@ -22,12 +22,17 @@ import io.ballerina.runtime.api.TypeTags;
 import io.ballerina.runtime.api.types.ObjectType;
 import io.ballerina.runtime.api.utils.StringUtils;
 import io.ballerina.runtime.api.utils.TypeUtils;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BError;
 import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BObject;
 import io.ballerina.runtime.api.values.BString;
 import io.ballerina.stdlib.stan.Constants;
 import io.ballerina.stdlib.stan.Utils;
+import io.nats.streaming.StreamingConnection;
 
+import java.math.BigDecimal;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static io.ballerina.runtime.api.constants.RuntimeConstants.ORG_NAME_SEPARATOR;
@@ -41,11 +46,49 @@ import static io.ballerina.runtime.api.constants.RuntimeConstants.VERSION_SEPARA
 public class Attach {
     private static final String STREAMING_SUBSCRIPTION_CONFIG = "ServiceConfig";
     private static final BString SUBJECT_ANNOTATION_FIELD = StringUtils.fromString("subject");
+    private static final BString MAX_IN_FLIGHT_ANNOTATION_FIELD = StringUtils.fromString("maxInFlight");
+    private static final BString MAX_BATCH_SIZE_ANNOTATION_FIELD = StringUtils.fromString("maxBatchSize");
+    private static final BString BATCH_LINGER_ANNOTATION_FIELD = StringUtils.fromString("batchLinger");
+    private static final BString ORDERING_KEY_ANNOTATION_FIELD = StringUtils.fromString("orderingKey");
+    private static final BString ACK_BATCH_SIZE_ANNOTATION_FIELD = StringUtils.fromString("ackBatchSize");
+    private static final BString ACK_FLUSH_INTERVAL_ANNOTATION_FIELD = StringUtils.fromString("ackFlushInterval");
+    private static final BString INCLUDE_DELIVERY_INFO_ANNOTATION_FIELD =
+            StringUtils.fromString("includeDeliveryInfo");
+    private static final BString DEDUPLICATION_ANNOTATION_FIELD = StringUtils.fromString("deduplication");
+    private static final BString MAX_REDELIVERIES_ANNOTATION_FIELD = StringUtils.fromString("maxRedeliveries");
+    private static final BString DEAD_LETTER_SUBJECT_ANNOTATION_FIELD = StringUtils.fromString("deadLetterSubject");
+    private static final BString CIRCUIT_BREAKER_ANNOTATION_FIELD = StringUtils.fromString("circuitBreaker");
+    private static final BString ADAPTIVE_CONCURRENCY_ANNOTATION_FIELD =
+            StringUtils.fromString("adaptiveConcurrency");
+    private static final BString REPLAY_ANNOTATION_FIELD = StringUtils.fromString("replay");
+    private static final BString FILTER_ANNOTATION_FIELD = StringUtils.fromString("filter");
+    private static final BString CHECKPOINT_KEY_ANNOTATION_FIELD = StringUtils.fromString("checkpointKey");
+    private static final BString DURABLE_NAME_ANNOTATION_FIELD = StringUtils.fromString("durableName");
+    private static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 100;
+    private static final long DEFAULT_BATCH_LINGER_MILLIS = 100;
+    private static final int DEFAULT_ACK_BATCH_SIZE = 100;
+    private static final long DEFAULT_ACK_FLUSH_MILLIS = 100;
 
 
     public static Object attach(Environment environment, BObject streamingListener, BObject service,
                                        Object serviceName) {
         String subject;
+        int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+        int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        long batchLingerMillis = DEFAULT_BATCH_LINGER_MILLIS;
+        int ackBatchSize = DEFAULT_ACK_BATCH_SIZE;
+        long ackFlushMillis = DEFAULT_ACK_FLUSH_MILLIS;
+        boolean includeDeliveryInfo = false;
+        DeduplicationWindow deduplicationWindow = null;
+        int maxRedeliveries = -1;
+        String deadLetterSubject = null;
+        CircuitBreaker circuitBreaker = null;
+        BMap<BString, Object> orderingKey = null;
+        BMap<BString, Object> adaptiveConcurrency = null;
+        ReplayPartitions replayPartitions = null;
+        MessageFilter filter = null;
+        String checkpointKey = "";
         Object streamingConnectionUrl = streamingListener.getNativeData(Constants.URL.getValue());
         ObjectType serviceType = (ObjectType) TypeUtils.getReferredType(TypeUtils.getType(service));
         @SuppressWarnings("unchecked")
@@ -56,6 +99,93 @@ public class Attach {
                                                               ":" + STREAMING_SUBSCRIPTION_CONFIG));
         if (annotation != null) {
             subject = annotation.getStringValue(SUBJECT_ANNOTATION_FIELD).getValue();
+            if (annotation.containsKey(MAX_IN_FLIGHT_ANNOTATION_FIELD)) {
+                maxInFlight = annotation.getIntValue(MAX_IN_FLIGHT_ANNOTATION_FIELD).intValue();
+            }
+            if (annotation.containsKey(MAX_BATCH_SIZE_ANNOTATION_FIELD)) {
+                maxBatchSize = annotation.getIntValue(MAX_BATCH_SIZE_ANNOTATION_FIELD).intValue();
+            }
+            if (annotation.containsKey(BATCH_LINGER_ANNOTATION_FIELD)) {
+                batchLingerMillis = ((BDecimal) annotation.get(BATCH_LINGER_ANNOTATION_FIELD)).decimalValue()
+                        .multiply(BigDecimal.valueOf(1000)).longValue();
+            }
+            if (annotation.containsKey(ACK_BATCH_SIZE_ANNOTATION_FIELD)) {
+                ackBatchSize = annotation.getIntValue(ACK_BATCH_SIZE_ANNOTATION_FIELD).intValue();
+            }
+            if (annotation.containsKey(ACK_FLUSH_INTERVAL_ANNOTATION_FIELD)) {
+                ackFlushMillis = ((BDecimal) annotation.get(ACK_FLUSH_INTERVAL_ANNOTATION_FIELD)).decimalValue()
+                        .multiply(BigDecimal.valueOf(1000)).longValue();
+            }
+            if (annotation.containsKey(INCLUDE_DELIVERY_INFO_ANNOTATION_FIELD)) {
+                includeDeliveryInfo = annotation.getBooleanValue(INCLUDE_DELIVERY_INFO_ANNOTATION_FIELD);
+            }
+            if (annotation.containsKey(DEDUPLICATION_ANNOTATION_FIELD)) {
+                @SuppressWarnings("unchecked")
+                BMap<BString, Object> deduplication =
+                        (BMap<BString, Object>) annotation.getMapValue(DEDUPLICATION_ANNOTATION_FIELD);
+                try {
+                    deduplicationWindow = DeduplicationWindow.create(deduplication);
+                } catch (IllegalArgumentException e) {
+                    return Utils.createNatsError(e.getMessage());
+                }
+            }
+            if (annotation.containsKey(MAX_REDELIVERIES_ANNOTATION_FIELD)) {
+                maxRedeliveries = annotation.getIntValue(MAX_REDELIVERIES_ANNOTATION_FIELD).intValue();
+            }
+            if (annotation.containsKey(DEAD_LETTER_SUBJECT_ANNOTATION_FIELD)) {
+                deadLetterSubject = annotation.getStringValue(DEAD_LETTER_SUBJECT_ANNOTATION_FIELD).getValue();
+            }
+            if (annotation.containsKey(CIRCUIT_BREAKER_ANNOTATION_FIELD)) {
+                @SuppressWarnings("unchecked")
+                BMap<BString, Object> circuitBreakerConfig =
+                        (BMap<BString, Object>) annotation.getMapValue(CIRCUIT_BREAKER_ANNOTATION_FIELD);
+                try {
+                    circuitBreaker = CircuitBreaker.create(circuitBreakerConfig);
+                } catch (IllegalArgumentException e) {
+                    return Utils.createNatsError(e.getMessage());
+                }
+            }
+            if (annotation.containsKey(ORDERING_KEY_ANNOTATION_FIELD)) {
+                @SuppressWarnings("unchecked")
+                BMap<BString, Object> orderingKeyConfig =
+                        (BMap<BString, Object>) annotation.getMapValue(ORDERING_KEY_ANNOTATION_FIELD);
+                orderingKey = orderingKeyConfig;
+            }
+            if (annotation.containsKey(ADAPTIVE_CONCURRENCY_ANNOTATION_FIELD)) {
+                @SuppressWarnings("unchecked")
+                BMap<BString, Object> adaptiveConcurrencyConfig =
+                        (BMap<BString, Object>) annotation.getMapValue(ADAPTIVE_CONCURRENCY_ANNOTATION_FIELD);
+                adaptiveConcurrency = adaptiveConcurrencyConfig;
+            }
+            if (annotation.containsKey(REPLAY_ANNOTATION_FIELD)) {
+                @SuppressWarnings("unchecked")
+                BMap<BString, Object> replay = (BMap<BString, Object>) annotation.getMapValue(REPLAY_ANNOTATION_FIELD);
+                try {
+                    replayPartitions = ReplayPartitions.create(replay);
+                } catch (IllegalArgumentException e) {
+                    return Utils.createNatsError(e.getMessage());
+                }
+                // Each partition is a subscription of its own, which keeps up to `maxInFlight` messages in flight.
+                maxInFlight = (int) Math.min((long) Math.max(maxInFlight, 1) * replayPartitions.getPartitions(),
+                                             Integer.MAX_VALUE);
+            }
+            // The name of the service type is generated for an anonymous service, which may change between builds,
+            // so the checkpoint is keyed on the configuration instead.
+            if (annotation.containsKey(CHECKPOINT_KEY_ANNOTATION_FIELD)) {
+                checkpointKey = annotation.getStringValue(CHECKPOINT_KEY_ANNOTATION_FIELD).getValue();
+            } else if (annotation.containsKey(DURABLE_NAME_ANNOTATION_FIELD)) {
+                checkpointKey = annotation.getStringValue(DURABLE_NAME_ANNOTATION_FIELD).getValue();
+            }
+            if (annotation.containsKey(FILTER_ANNOTATION_FIELD)) {
+                @SuppressWarnings("unchecked")
+                BMap<BString, Object> filterConfig =
+                        (BMap<BString, Object>) annotation.getMapValue(FILTER_ANNOTATION_FIELD);
+                try {
+                    filter = MessageFilter.create(filterConfig);
+                } catch (IllegalArgumentException e) {
+                    return Utils.createNatsError(e.getMessage());
+                }
+            }
         } else if (TypeUtils.getType(serviceName).getTag() == TypeTags.STRING_TAG) {
             // Else get the service name as the subject
             subject = ((BString) serviceName).getValue();
@@ -67,8 +197,66 @@ public class Attach {
                 (ConcurrentHashMap<BObject, StreamingListener>) streamingListener
                         .getNativeData(Constants.STREAMING_DISPATCHER_LIST);
         boolean manualAck = !getAckMode(service);
-        serviceListenerMap.put(service, new StreamingListener(service, manualAck, environment.getRuntime(),
-                                                              streamingConnectionUrl, subject));
+        DispatchPlan dispatchPlan;
+        try {
+            dispatchPlan = DispatchPlan.create(service);
+        } catch (BError e) {
+            return e;
+        }
+        // Only the messages of an isolated service are dispatched concurrently, so the messages of any other service
+        // are already processed in order and do not need the lanes.
+        KeyOrderedLanes orderingLanes = null;
+        if (orderingKey != null && dispatchPlan.isConcurrent() && !dispatchPlan.isBatch()) {
+            try {
+                orderingLanes = KeyOrderedLanes.create(orderingKey);
+            } catch (IllegalArgumentException e) {
+                return Utils.createNatsError(e.getMessage());
+            }
+        }
+        // The messages of any other service are processed one at a time, so there is no concurrency to adapt.
+        AdaptiveLimit adaptiveLimit = null;
+        if (adaptiveConcurrency != null && dispatchPlan.isConcurrent()) {
+            try {
+                adaptiveLimit = AdaptiveLimit.create(adaptiveConcurrency, Math.max(maxInFlight, 1));
+            } catch (IllegalArgumentException e) {
+                return Utils.createNatsError(e.getMessage());
+            }
+        }
+        boolean decompress = streamingListener.getNativeData(Constants.NATS_STREAMING_COMPRESSION) != null;
+        CheckpointStore checkpointStore =
+                (CheckpointStore) streamingListener.getNativeData(Constants.NATS_STREAMING_CHECKPOINT_STORE);
+        CheckpointStore.Tracker checkpointTracker = checkpointStore == null ? null
+                : checkpointStore.track(subject, checkpointKey);
+        @SuppressWarnings("unchecked")
+        ConcurrentHashMap<BObject, StreamingListener> activeListenersMap =
+                (ConcurrentHashMap<BObject, StreamingListener>) streamingListener
+                        .getNativeData(Constants.STREAMING_ACTIVE_LISTENERS);
+        if (checkpointTracker != null && (tracksCheckpoint(serviceListenerMap, service, checkpointTracker) ||
+                tracksCheckpoint(activeListenersMap, service, checkpointTracker))) {
+            return Utils.createNatsError("Another service of the listener subscribed to `" + subject +
+                                                 "` has the same checkpoint key. Set a distinct `checkpointKey`");
+        }
+        DeadLetterPolicy deadLetterPolicy = null;
+        if (maxRedeliveries >= 0) {
+            if (deadLetterSubject == null) {
+                // Dropping the messages would silently lose them, so a subject to move them to is required.
+                return Utils.createNatsError("The `deadLetterSubject` is required with the `maxRedeliveries`");
+            }
+            // The copies are published over the connection of the listener.
+            deadLetterPolicy = new DeadLetterPolicy(
+                    (StreamingConnection) streamingListener.getNativeData(Constants.NATS_STREAMING_CONNECTION),
+                    Utils.getCommaSeparatedUrl(streamingConnectionUrl), deadLetterSubject, maxRedeliveries,
+                    maxInFlight);
+        }
+        serviceListenerMap.put(service, new StreamingListener(service, dispatchPlan, manualAck,
+                                                              environment.getRuntime(),
+                                                              streamingConnectionUrl, subject, maxInFlight,
+                                                              maxBatchSize, batchLingerMillis, decompress,
+                                                              orderingLanes, ackBatchSize, ackFlushMillis,
+                                                              includeDeliveryInfo, checkpointTracker,
+                                                              deduplicationWindow, deadLetterPolicy,
+                                                              circuitBreaker, adaptiveLimit,
+                                                              replayPartitions, filter));
         return null;
     }
 
@@ -85,4 +273,14 @@ public class Attach {
         }
         return serviceConfig.getBooleanValue(Constants.NATS_STREAMING_MANUAL_ACK);
     }
+
+    private static boolean tracksCheckpoint(ConcurrentHashMap<BObject, StreamingListener> listeners, BObject service,
+                                            CheckpointStore.Tracker checkpointTracker) {
+        for (Map.Entry<BObject, StreamingListener> entry : listeners.entrySet()) {
+            if (entry.getKey() != service && entry.getValue().getCheckpointTracker() == checkpointTracker) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.consumer;
+
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.stdlib.stan.observability.NatsMetricsReporter;
+import io.ballerina.stdlib.stan.observability.NatsObservabilityConstants;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local store of the last sequence number processed by each service of a listener, so that a non-durable
+ * subscription resumes where it stopped after a restart.
+ * <p>
+ * The checkpoints are appended to a log file at the configured flush interval, and the log is rewritten with only
+ * the latest checkpoint of each service once the number of appended records reaches the compaction threshold.
+ * A record is a line holding the sequence number and the key of the service, separated by a tab. A torn last line
+ * is ignored on recovery, which at worst replays the messages of one flush interval.
+ */
+final class CheckpointStore {
+    private static final BString DIRECTORY = StringUtils.fromString("directory");
+    private static final BString FLUSH_INTERVAL = StringUtils.fromString("flushInterval");
+    private static final BString COMPACTION_THRESHOLD = StringUtils.fromString("compactionThreshold");
+    private static final String LOG_FILE = "checkpoints.log";
+    private static final String COMPACTION_FILE = "checkpoints.log.tmp";
+    private static final char SEPARATOR = '\t';
+    private static final ScheduledExecutorService flushScheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "stan-checkpoint-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Path logFile;
+    private final Path compactionFile;
+    private final int compactionThreshold;
+    private final Map<String, Long> recovered;
+    private final Map<String, Tracker> trackers = new ConcurrentHashMap<>();
+    private final Map<String, Long> persisted = new HashMap<>();
+    private BufferedWriter writer;
+    private int appendedRecords;
+    private ScheduledFuture<?> flushTask;
+
+    private CheckpointStore(Path directory, int compactionThreshold, Map<String, Long> recovered) {
+        this.logFile = directory.resolve(LOG_FILE);
+        this.compactionFile = directory.resolve(COMPACTION_FILE);
+        this.compactionThreshold = Math.max(compactionThreshold, 1);
+        this.recovered = recovered;
+        this.persisted.putAll(recovered);
+    }
+
+    /**
+     * Opens the checkpoint store described by the given configuration and recovers the checkpoints left in it by
+     * a previous run.
+     *
+     * @param checkpointConfig The `stan:CheckpointConfiguration` record.
+     * @return The checkpoint store.
+     * @throws IOException If the checkpoint directory or log cannot be opened.
+     */
+    static CheckpointStore open(BMap<BString, Object> checkpointConfig) throws IOException {
+        Path directory = Paths.get(checkpointConfig.getStringValue(DIRECTORY).getValue());
+        long flushIntervalMillis = (long) (((BDecimal) checkpointConfig.get(FLUSH_INTERVAL)).floatValue() * 1000);
+        long compactionThreshold = checkpointConfig.getIntValue(COMPACTION_THRESHOLD);
+        Files.createDirectories(directory);
+        CheckpointStore store = new CheckpointStore(directory, (int) Math.min(compactionThreshold,
+                                                                              Integer.MAX_VALUE),
+                                                    recover(directory.resolve(LOG_FILE)));
+        synchronized (store) {
+            // Starts from a compacted log, which also drops a torn last record.
+            store.compact();
+            long interval = Math.max(flushIntervalMillis, 1);
+            store.flushTask = flushScheduler.scheduleWithFixedDelay(store::flushQuietly, interval, interval,
+                                                                    TimeUnit.MILLISECONDS);
+        }
+        return store;
+    }
+
+    private static Map<String, Long> recover(Path logFile) throws IOException {
+        Map<String, Long> checkpoints = new HashMap<>();
+        if (!Files.exists(logFile)) {
+            return checkpoints;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(logFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf(SEPARATOR);
+                if (separator <= 0) {
+                    continue;
+                }
+                long sequence;
+                try {
+                    sequence = Long.parseLong(line.substring(0, separator));
+                } catch (NumberFormatException e) {
+                    // A torn record. The previous checkpoint of the service still holds.
+                    continue;
+                }
+                checkpoints.put(line.substring(separator + 1), sequence);
+            }
+        }
+        return checkpoints;
+    }
+
+    /**
+     * Returns the tracker of the sequence numbers processed by the service with the given key.
+     *
+     * @param subject    The subject the service is subscribed to.
+     * @param serviceKey The checkpoint key of the service, which is empty for the only service of the subject.
+     * @return The tracker.
+     */
+    Tracker track(String subject, String serviceKey) {
+        String key = subject + SEPARATOR + serviceKey;
+        return trackers.computeIfAbsent(key, k -> new Tracker(recovered.getOrDefault(k, 0L)));
+    }
+
+    /**
+     * Appends the checkpoints which moved since the last flush to the log.
+     *
+     * @throws IOException If the log cannot be written.
+     */
+    synchronized void flush() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        boolean appended = false;
+        for (Map.Entry<String, Tracker> entry : trackers.entrySet()) {
+            long checkpoint = entry.getValue().getCheckpoint();
+            Long previous = persisted.get(entry.getKey());
+            if (checkpoint > 0 && (previous == null || previous != checkpoint)) {
+                writeRecord(writer, entry.getKey(), checkpoint);
+                persisted.put(entry.getKey(), checkpoint);
+                appendedRecords++;
+                appended = true;
+            }
+        }
+        if (appended) {
+            writer.flush();
+        }
+        if (appendedRecords >= compactionThreshold) {
+            compact();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            NatsMetricsReporter.reportError(NatsObservabilityConstants.CONTEXT_CONSUMER,
+                                            NatsObservabilityConstants.ERROR_TYPE_CHECKPOINT);
+        }
+    }
+
+    // Should be called while holding the lock of the store.
+    private void compact() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+        try (BufferedWriter compacted = Files.newBufferedWriter(compactionFile, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Long> entry : persisted.entrySet()) {
+                writeRecord(compacted, entry.getKey(), entry.getValue());
+            }
+        }
+        Files.move(compactionFile, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        writer = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        appendedRecords = 0;
+    }
+
+    private static void writeRecord(BufferedWriter out, String key, long sequence) throws IOException {
+        out.write(Long.toString(sequence));
+        out.write(SEPARATOR);
+        out.write(key);
+        out.newLine();
+    }
+
+    /**
+     * Flushes the checkpoints and closes the log.
+     *
+     * @throws IOException If the log cannot be written.
+     */
+    synchronized void close() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        flushTask.cancel(false);
+        flush();
+        writer.close();
+        writer = null;
+    }
+
+    /**
+     * Tracks the sequence numbers processed by a service. Messages of an isolated service complete out of order,
+     * and messages held back are redelivered later, so the checkpoint is the highest sequence number below which
+     * every received message has completed.
+     */
+    static final class Tracker {
+        private final long resumeSequence;
+        private final TreeSet<Long> inFlight = new TreeSet<>();
+        private long highestCompleted;
+        private long checkpoint;
+
+        private Tracker(long resumeSequence) {
+            this.resumeSequence = resumeSequence;
+            this.checkpoint = resumeSequence;
+            this.highestCompleted = resumeSequence;
+        }
+
+        /**
+         * Returns the last sequence number processed in a previous run, or 0 if there is none.
+         *
+         * @return The sequence number.
+         */
+        long getResumeSequence() {
+            return resumeSequence;
+        }
+
+        /**
+         * Starts tracking a received message. A redelivered message is tracked once, until it is completed.
+         *
+         * @param sequence The sequence number of the message.
+         */
+        synchronized void begin(long sequence) {
+            if (sequence > checkpoint) {
+                inFlight.add(sequence);
+            }
+        }
+
+        synchronized void complete(long sequence) {
+            inFlight.remove(sequence);
+            highestCompleted = Math.max(highestCompleted, sequence);
+            advance();
+        }
+
+        private void advance() {
+            long candidate = inFlight.isEmpty() ? highestCompleted : inFlight.first() - 1;
+            checkpoint = Math.max(checkpoint, candidate);
+        }
+
+        synchronized long getCheckpoint() {
+            return checkpoint;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.consumer;
+
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import io.nats.streaming.Message;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Error-rate circuit breaker of a subscription. The outcomes of the dispatched messages are counted in a rolling
+ * window of buckets, and the circuit opens once the share of failures within the window reaches the threshold.
+ * While open, the listener leaves the received messages unacknowledged without dispatching them, so the server stops
+ * delivering once `maxInFlight` messages are pending and redelivers them after the `ackWait`. After the reset time,
+ * a single probe message is dispatched, and its outcome decides whether the circuit closes or opens again. The other
+ * messages are held back while the probe is outstanding.
+ */
+final class CircuitBreaker {
+    private static final BString ROLLING_WINDOW = StringUtils.fromString("rollingWindow");
+    private static final BString BUCKETS = StringUtils.fromString("buckets");
+    private static final BString FAILURE_THRESHOLD = StringUtils.fromString("failureThreshold");
+    private static final BString REQUEST_VOLUME_THRESHOLD = StringUtils.fromString("requestVolumeThreshold");
+    private static final BString RESET_TIME = StringUtils.fromString("resetTime");
+
+    private final long bucketNanos;
+    private final double failureThreshold;
+    private final int requestVolumeThreshold;
+    private final long resetNanos;
+    private final int[] successes;
+    private final int[] failures;
+    private long currentBucket;
+    private State state = State.CLOSED;
+    private long openedAt;
+    // The sequence number of the outstanding probe while half open, or 0 if there is none.
+    private long probeSequence;
+    // Told whether the circuit is open, on every change of its state.
+    private Consumer<Boolean> stateListener = open -> { };
+
+    private CircuitBreaker(long rollingWindowNanos, int buckets, double failureThreshold, int requestVolumeThreshold,
+                           long resetNanos) {
+        this.bucketNanos = Math.max(rollingWindowNanos / buckets, 1);
+        this.failureThreshold = failureThreshold;
+        this.requestVolumeThreshold = requestVolumeThreshold;
+        this.resetNanos = resetNanos;
+        this.successes = new int[buckets];
+        this.failures = new int[buckets];
+        this.currentBucket = System.nanoTime() / bucketNanos;
+    }
+
+    /**
+     * Creates the circuit breaker described by a `stan:CircuitBreakerConfig` record.
+     *
+     * @param config The `stan:CircuitBreakerConfig` record.
+     * @return The circuit breaker.
+     * @throws IllegalArgumentException If the configuration is not valid.
+     */
+    static CircuitBreaker create(BMap<BString, Object> config) {
+        long rollingWindowNanos = toNanos(config.get(ROLLING_WINDOW));
+        long buckets = config.getIntValue(BUCKETS);
+        double failureThreshold = config.getFloatValue(FAILURE_THRESHOLD);
+        long requestVolumeThreshold = config.getIntValue(REQUEST_VOLUME_THRESHOLD);
+        long resetNanos = toNanos(config.get(RESET_TIME));
+        if (rollingWindowNanos <= 0 || buckets < 1 || buckets > Integer.MAX_VALUE || failureThreshold <= 0 ||
+                failureThreshold > 1 || requestVolumeThreshold < 0 || requestVolumeThreshold > Integer.MAX_VALUE ||
+                resetNanos < 0) {
+            throw new IllegalArgumentException("Invalid circuit breaker configuration: the rolling window and the " +
+                                                       "buckets should be positive and the failure threshold " +
+                                                       "should be within (0, 1]");
+        }
+        return new CircuitBreaker(rollingWindowNanos, (int) buckets, failureThreshold, (int) requestVolumeThreshold,
+                                  resetNanos);
+    }
+
+    /**
+     * Sets the listener told whether the circuit is open on every change of its state, including the change from
+     * open to half open.
+     *
+     * @param listener The listener.
+     */
+    synchronized void setStateListener(Consumer<Boolean> listener) {
+        this.stateListener = listener;
+    }
+
+    private static long toNanos(Object seconds) {
+        return (long) (((BDecimal) seconds).floatValue() * 1E9);
+    }
+
+    /**
+     * Returns whether a received message may be dispatched. While half open, the admitted message is the probe.
+     *
+     * @param sequence The sequence number of the message.
+     * @return False while the circuit is open, or while a probe is outstanding.
+     */
+    synchronized boolean allowDispatch(long sequence) {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < resetNanos) {
+                return false;
+            }
+            transition(State.HALF_OPEN);
+            probeSequence = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeSequence != 0) {
+                return false;
+            }
+            probeSequence = sequence;
+        }
+        return true;
+    }
+
+    /**
+     * Gives up the probe admitted for the given message, which is not dispatched after all, so that the next message
+     * is admitted as the probe instead.
+     *
+     * @param sequence The sequence number of the message.
+     */
+    synchronized void abandon(long sequence) {
+        if (state == State.HALF_OPEN && probeSequence == sequence) {
+            probeSequence = 0;
+        }
+    }
+
+    /**
+     * Records the outcome of a dispatched message, or batch of messages.
+     *
+     * @param failed   Whether the service failed to process the messages.
+     * @param messages The messages.
+     */
+    synchronized void record(boolean failed, List<Message> messages) {
+        long now = System.nanoTime();
+        if (state == State.HALF_OPEN) {
+            if (!containsProbe(messages)) {
+                // The outcome of a message dispatched before the circuit opened.
+                return;
+            }
+            probeSequence = 0;
+            if (failed) {
+                open(now);
+            } else {
+                transition(State.CLOSED);
+                reset(now);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // The outcome of a message dispatched before the circuit opened.
+            return;
+        }
+        int bucket = rollTo(now);
+        if (failed) {
+            failures[bucket]++;
+        } else {
+            successes[bucket]++;
+        }
+        int totalFailures = 0;
+        int total = 0;
+        for (int i = 0; i < successes.length; i++) {
+            totalFailures += failures[i];
+            total += successes[i] + failures[i];
+        }
+        if (failed && total >= requestVolumeThreshold && totalFailures >= failureThreshold * total) {
+            open(now);
+        }
+    }
+
+    private boolean containsProbe(List<Message> messages) {
+        for (Message message : messages) {
+            if (message.getSequence() == probeSequence) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Clears the buckets the window moved past since the last outcome and returns the current bucket.
+    private int rollTo(long now) {
+        long bucket = now / bucketNanos;
+        long elapsed = Math.min(bucket - currentBucket, successes.length);
+        for (long i = 1; i <= elapsed; i++) {
+            int index = (int) Math.floorMod(currentBucket + i, (long) successes.length);
+            successes[index] = 0;
+            failures[index] = 0;
+        }
+        currentBucket = bucket;
+        return (int) Math.floorMod(bucket, (long) successes.length);
+    }
+
+    private void open(long now) {
+        transition(State.OPEN);
+        openedAt = now;
+        reset(now);
+    }
+
+    private void transition(State next) {
+        if (state != next) {
+            state = next;
+            stateListener.accept(next == State.OPEN);
+        }
+    }
+
+    private void reset(long now) {
+        for (int i = 0; i < successes.length; i++) {
+            successes[i] = 0;
+            failures[i] = 0;
+        }
+        currentBucket = now / bucketNanos;
+    }
+
+    private enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+}
@@ -23,11 +23,14 @@ import io.ballerina.runtime.api.values.BObject;
 import io.ballerina.stdlib.stan.Constants;
 import io.ballerina.stdlib.stan.connection.NatsStreamingConnection;
 import io.ballerina.stdlib.stan.observability.NatsMetricsReporter;
+import io.ballerina.stdlib.stan.observability.NatsObservabilityConstants;
 import io.nats.streaming.StreamingConnection;
 import io.nats.streaming.Subscription;
 
+import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Close NATS streaming listener.
@@ -36,7 +39,17 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class Close {
 
+    private static final long DRAIN_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
     public static Object streamingListenerClose(Environment environment, BObject streamingListener) {
+        synchronized (streamingListener) {
+            // The listener may be closed after being stopped.
+            if (streamingListener.getNativeData(Constants.STREAMING_LISTENER_CLOSED) != null) {
+                return null;
+            }
+            streamingListener.addNativeData(Constants.STREAMING_LISTENER_CLOSED, Boolean.TRUE);
+        }
+        flushDeferredAcks(streamingListener);
         StreamingConnection streamingConnection = (StreamingConnection) streamingListener.getNativeData(
                 Constants.NATS_STREAMING_CONNECTION);
         ConcurrentHashMap<BObject, Subscription> subscriptionsMap =
@@ -47,6 +60,48 @@ public class Close {
             NatsMetricsReporter.reportStreamingUnsubscription(streamingConnection.getNatsConnection().getConnectedUrl(),
                                                               subject);
         }
+        CheckpointStore checkpointStore =
+                (CheckpointStore) streamingListener.getNativeData(Constants.NATS_STREAMING_CHECKPOINT_STORE);
+        if (checkpointStore != null) {
+            try {
+                checkpointStore.close();
+            } catch (IOException e) {
+                NatsMetricsReporter.reportError(NatsObservabilityConstants.CONTEXT_CONSUMER,
+                                                NatsObservabilityConstants.ERROR_TYPE_CHECKPOINT);
+            }
+        }
         return NatsStreamingConnection.closeConnection(environment, streamingListener);
     }
+
+    public static Object streamingListenerGracefulStop(Environment environment, BObject streamingListener) {
+        @SuppressWarnings("unchecked")
+        ConcurrentHashMap<BObject, StreamingListener> activeListenersMap =
+                (ConcurrentHashMap<BObject, StreamingListener>) streamingListener
+                        .getNativeData(Constants.STREAMING_ACTIVE_LISTENERS);
+        long timeoutMillis = (Long) streamingListener.getNativeData(Constants.STREAMING_GRACEFUL_STOP_TIMEOUT);
+        for (StreamingListener activeListener : activeListenersMap.values()) {
+            activeListener.startDraining();
+        }
+        // All the services share the deadline.
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            for (StreamingListener activeListener : activeListenersMap.values()) {
+                activeListener.awaitIdle(deadline, DRAIN_POLL_NANOS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // The messages still being processed after the deadline are redelivered once their `ackWait` expires.
+        return streamingListenerClose(environment, streamingListener);
+    }
+
+    private static void flushDeferredAcks(BObject streamingListener) {
+        @SuppressWarnings("unchecked")
+        ConcurrentHashMap<BObject, StreamingListener> activeListenersMap =
+                (ConcurrentHashMap<BObject, StreamingListener>) streamingListener
+                        .getNativeData(Constants.STREAMING_ACTIVE_LISTENERS);
+        for (StreamingListener activeListener : activeListenersMap.values()) {
+            activeListener.flushDeferredAcks();
+        }
+    }
 }
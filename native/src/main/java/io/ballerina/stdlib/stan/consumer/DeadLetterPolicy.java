@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.consumer;
+
+import io.ballerina.stdlib.stan.observability.NatsMetricsReporter;
+import io.ballerina.stdlib.stan.observability.NatsObservabilityConstants;
+import io.nats.streaming.Message;
+import io.nats.streaming.StreamingConnection;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Moves the messages the server redelivered more than the allowed number of times to a dead letter subject, so that
+ * they stop taking up the in-flight slots of the subscription.
+ * <p>
+ * The deliveries are counted in slots indexed by the remainder of the sequence number over the number of slots. Only
+ * the unacknowledged messages get redelivered, so twice the `maxInFlight` slots are enough in practice. When two
+ * sequence numbers share a slot, the count of the older one restarts, which only delays its dead-lettering.
+ */
+final class DeadLetterPolicy {
+    private final StreamingConnection connection;
+    private final String url;
+    private final String deadLetterSubject;
+    private final int maxRedeliveries;
+    private final long[] sequences;
+    private final int[] redeliveries;
+
+    DeadLetterPolicy(StreamingConnection connection, String url, String deadLetterSubject, int maxRedeliveries,
+                     int maxInFlight) {
+        this.connection = connection;
+        this.url = url;
+        this.deadLetterSubject = deadLetterSubject;
+        this.maxRedeliveries = Math.max(maxRedeliveries, 0);
+        int slots = Math.max(maxInFlight, 1) * 2;
+        this.sequences = new long[slots];
+        this.redeliveries = new int[slots];
+    }
+
+    /**
+     * Records a delivery of the given message.
+     *
+     * @param msg The delivered message.
+     * @return True if the message was redelivered more than the allowed number of times.
+     */
+    synchronized boolean recordDelivery(Message msg) {
+        long sequence = msg.getSequence();
+        int slot = (int) (sequence % sequences.length);
+        if (sequences[slot] != sequence) {
+            sequences[slot] = sequence;
+            redeliveries[slot] = 0;
+        }
+        if (msg.isRedelivered()) {
+            redeliveries[slot]++;
+        }
+        return redeliveries[slot] > maxRedeliveries;
+    }
+
+    /**
+     * Publishes the given message to the dead letter subject and acknowledges it once the server stored the copy.
+     * A message which cannot be published is left unacknowledged, so that it is dead-lettered again on its next
+     * redelivery.
+     *
+     * @param msg  The message.
+     * @param data The payload of the message, as received.
+     */
+    void deadLetter(Message msg, byte[] data) {
+        try {
+            connection.publish(deadLetterSubject, data, (nuid, ex) -> {
+                if (ex == null) {
+                    NatsMetricsReporter.reportDeadLettered(url, msg.getSubject());
+                    ack(msg);
+                } else {
+                    reportError(msg);
+                }
+            });
+        } catch (IOException | TimeoutException | IllegalStateException e) {
+            reportError(msg);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reportError(msg);
+        }
+    }
+
+    private void ack(Message msg) {
+        try {
+            msg.ack();
+        } catch (IOException e) {
+            NatsMetricsReporter.reportStreamingError(url, msg.getSubject(), NatsObservabilityConstants.CONTEXT_CONSUMER,
+                                                     NatsObservabilityConstants.ERROR_TYPE_ACKNOWLEDGEMENT);
+        }
+    }
+
+    private void reportError(Message msg) {
+        NatsMetricsReporter.reportStreamingError(url, msg.getSubject(), NatsObservabilityConstants.CONTEXT_CONSUMER,
+                                                 NatsObservabilityConstants.ERROR_TYPE_DEAD_LETTER);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.consumer;
+
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Bounded window of the sequence numbers a service processed successfully, used to skip the messages the server
+ * redelivers after they were processed.
+ * <p>
+ * A sequence number is stored in the slot indexed by its remainder over the window size, which holds the most
+ * recent sequence number mapped to it. The window remembers at least the last `size` sequence numbers of the
+ * channel and never reports a sequence number it did not store. Sequence numbers of a channel start at 1, so an
+ * empty slot holds 0. Large windows can be kept off the heap.
+ */
+final class DeduplicationWindow {
+    private static final BString WINDOW = StringUtils.fromString("window");
+    private static final BString OFF_HEAP = StringUtils.fromString("offHeap");
+
+    private final LongBuffer slots;
+    private final int size;
+
+    private DeduplicationWindow(int size, boolean offHeap) {
+        this.size = size;
+        this.slots = offHeap ? ByteBuffer.allocateDirect(size * Long.BYTES).asLongBuffer() : LongBuffer.allocate(size);
+    }
+
+    /**
+     * Creates the window described by a `stan:Deduplication` record.
+     *
+     * @param deduplication The `stan:Deduplication` record.
+     * @return The window.
+     * @throws IllegalArgumentException If the configuration is not valid.
+     */
+    static DeduplicationWindow create(BMap<BString, Object> deduplication) {
+        long window = deduplication.getIntValue(WINDOW);
+        if (window < 1 || window > Integer.MAX_VALUE / Long.BYTES) {
+            throw new IllegalArgumentException("Invalid deduplication window: " + window);
+        }
+        return new DeduplicationWindow((int) window, deduplication.getBooleanValue(OFF_HEAP));
+    }
+
+    synchronized boolean contains(long sequence) {
+        return sequence > 0 && slots.get(slotOf(sequence)) == sequence;
+    }
+
+    synchronized void add(long sequence) {
+        if (sequence > 0) {
+            slots.put(slotOf(sequence), sequence);
+        }
+    }
+
+    private int slotOf(long sequence) {
+        return (int) (sequence % size);
+    }
+}
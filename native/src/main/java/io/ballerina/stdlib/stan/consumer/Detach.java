@@ -41,12 +41,27 @@ public class Detach {
         ConcurrentHashMap<BObject, Subscription> subscriptionsMap =
                 (ConcurrentHashMap<BObject, Subscription>) streamingListener
                         .getNativeData(Constants.STREAMING_SUBSCRIPTION_LIST);
+        ConcurrentHashMap<BObject, StreamingListener> activeListenersMap =
+                (ConcurrentHashMap<BObject, StreamingListener>) streamingListener
+                        .getNativeData(Constants.STREAMING_ACTIVE_LISTENERS);
         Subscription subscription = subscriptionsMap.get(service);
         try {
             if (subscription == null) {
                 return;
             }
-            subscription.unsubscribe();
+            StreamingListener activeListener = activeListenersMap.remove(service);
+            if (activeListener != null) {
+                // The deferred acknowledgements cannot be sent once unsubscribed.
+                activeListener.flushDeferredAcks();
+            }
+            ReplayPartitions replayPartitions = activeListener == null ? null
+                    : activeListener.getReplayPartitions();
+            if (replayPartitions != null) {
+                // Each partition of a replay has a subscription of its own, of which the finished ones are closed.
+                replayPartitions.unsubscribe();
+            } else {
+                subscription.unsubscribe();
+            }
             subscriptionsMap.remove(service);
             serviceListenerMap.remove(service);
             StreamingConnection streamingConnection = (StreamingConnection) streamingListener
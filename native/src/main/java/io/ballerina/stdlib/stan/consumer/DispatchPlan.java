@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.consumer;
+
+import io.ballerina.runtime.api.TypeTags;
+import io.ballerina.runtime.api.async.StrandMetadata;
+import io.ballerina.runtime.api.types.MethodType;
+import io.ballerina.runtime.api.types.ObjectType;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.utils.TypeUtils;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.stdlib.stan.Constants;
+import io.ballerina.stdlib.stan.Utils;
+
+/**
+ * Immutable description of how messages are dispatched to a service, resolved once when the service is attached
+ * instead of on every message.
+ */
+public final class DispatchPlan {
+    private final String resourceName;
+    private final boolean batch;
+    private final int arity;
+    private final boolean readonlyMessage;
+    private final boolean concurrent;
+    private final Type returnType;
+    private final StrandMetadata metadata;
+    private final String serviceName;
+    private final boolean onErrorConcurrent;
+    private final boolean onErrorReadonlyMessage;
+    private final Type onErrorReturnType;
+    private final StrandMetadata onErrorMetadata;
+
+    private DispatchPlan(String resourceName, boolean batch, int arity, boolean readonlyMessage,
+                         boolean concurrent, Type returnType, StrandMetadata metadata, String serviceName,
+                         boolean onErrorConcurrent, boolean onErrorReadonlyMessage, Type onErrorReturnType,
+                         StrandMetadata onErrorMetadata) {
+        this.resourceName = resourceName;
+        this.batch = batch;
+        this.arity = arity;
+        this.readonlyMessage = readonlyMessage;
+        this.concurrent = concurrent;
+        this.returnType = returnType;
+        this.metadata = metadata;
+        this.serviceName = serviceName;
+        this.onErrorConcurrent = onErrorConcurrent;
+        this.onErrorReadonlyMessage = onErrorReadonlyMessage;
+        this.onErrorReturnType = onErrorReturnType;
+        this.onErrorMetadata = onErrorMetadata;
+    }
+
+    /**
+     * Resolves the dispatch plan of the given service.
+     *
+     * @param service The service attached to the listener.
+     * @return The dispatch plan of the service.
+     */
+    public static DispatchPlan create(BObject service) {
+        ObjectType serviceType = (ObjectType) TypeUtils.getReferredType(TypeUtils.getType(service));
+        String resourceName = Constants.ON_MESSAGES_RESOURCE;
+        MethodType resource = Utils.getAttachedFunctionType(service, resourceName);
+        if (resource == null) {
+            resourceName = Constants.ON_MESSAGE_RESOURCE;
+            resource = Utils.getAttachedFunctionType(service, resourceName);
+        }
+        if (resource == null) {
+            throw Utils.createNatsError("Service must have remote method onMessage or onMessages");
+        }
+        Type[] parameterTypes = resource.getParameterTypes();
+        boolean readonlyMessage = parameterTypes.length > 0 &&
+                parameterTypes[0].getTag() == TypeTags.INTERSECTION_TAG;
+        boolean concurrent = serviceType.isIsolated() && serviceType.isIsolated(resourceName);
+        StrandMetadata metadata = new StrandMetadata(Utils.getModule().getOrg(), Utils.getModule().getName(),
+                                                     Utils.getModule().getVersion(), resourceName);
+        MethodType onError = Utils.getAttachedFunctionType(service, Constants.ON_ERROR_RESOURCE);
+        boolean onErrorConcurrent = onError != null && serviceType.isIsolated() &&
+                serviceType.isIsolated(Constants.ON_ERROR_RESOURCE);
+        boolean onErrorReadonlyMessage = onError != null && onError.getParameterTypes().length > 0 &&
+                onError.getParameterTypes()[0].getTag() == TypeTags.INTERSECTION_TAG;
+        StrandMetadata onErrorMetadata = onError == null ? null
+                : new StrandMetadata(Utils.getModule().getOrg(), Utils.getModule().getName(),
+                                     Utils.getModule().getVersion(), Constants.ON_ERROR_RESOURCE);
+        return new DispatchPlan(resourceName, Constants.ON_MESSAGES_RESOURCE.equals(resourceName),
+                                parameterTypes.length, readonlyMessage, concurrent, resource.getReturnType(),
+                                metadata, serviceType.getName(), onErrorConcurrent, onErrorReadonlyMessage,
+                                onError == null ? null : onError.getReturnType(), onErrorMetadata);
+    }
+
+    public String getResourceName() {
+        return resourceName;
+    }
+
+    public boolean isBatch() {
+        return batch;
+    }
+
+    public int getArity() {
+        return arity;
+    }
+
+    public boolean isReadonlyMessage() {
+        return readonlyMessage;
+    }
+
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    public Type getReturnType() {
+        return returnType;
+    }
+
+    public StrandMetadata getMetadata() {
+        return metadata;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public boolean hasOnError() {
+        return onErrorMetadata != null;
+    }
+
+    public boolean isOnErrorConcurrent() {
+        return onErrorConcurrent;
+    }
+
+    public boolean isOnErrorReadonlyMessage() {
+        return onErrorReadonlyMessage;
+    }
+
+    public Type getOnErrorReturnType() {
+        return onErrorReturnType;
+    }
+
+    public StrandMetadata getOnErrorMetadata() {
+        return onErrorMetadata;
+    }
+}
@@ -17,17 +17,22 @@
  */
 package io.ballerina.stdlib.stan.consumer;
 
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BDecimal;
 import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BObject;
 import io.ballerina.runtime.api.values.BString;
 import io.ballerina.stdlib.stan.Constants;
 import io.ballerina.stdlib.stan.Utils;
+import io.ballerina.stdlib.stan.codec.PayloadCompression;
 import io.ballerina.stdlib.stan.connection.NatsStreamingConnection;
 import io.ballerina.stdlib.stan.observability.NatsMetricsReporter;
 import io.ballerina.stdlib.stan.observability.NatsObservabilityConstants;
 import io.nats.streaming.StreamingConnection;
 import io.nats.streaming.Subscription;
 
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -36,9 +41,35 @@ import java.util.concurrent.ConcurrentHashMap;
  * @since 1.0.0
  */
 public class Init {
+    private static final BString CHECKPOINT_CONFIG = StringUtils.fromString("checkpoint");
+    private static final BString GRACEFUL_STOP_TIMEOUT = StringUtils.fromString("gracefulStopTimeout");
 
     public static Object streamingListenerInit(BObject streamingListener, Object url,
                                                BMap<BString, Object> streamingConfig) {
+        PayloadCompression compression = null;
+        if (streamingConfig.containsKey(Constants.COMPRESSION_CONFIG)) {
+            @SuppressWarnings("unchecked")
+            BMap<BString, Object> compressionConfig =
+                    (BMap<BString, Object>) streamingConfig.getMapValue(Constants.COMPRESSION_CONFIG);
+            try {
+                compression = PayloadCompression.create(compressionConfig);
+            } catch (IllegalArgumentException e) {
+                return Utils.createNatsError(e.getMessage());
+            }
+        }
+        CheckpointStore checkpointStore = null;
+        if (streamingConfig.containsKey(CHECKPOINT_CONFIG)) {
+            @SuppressWarnings("unchecked")
+            BMap<BString, Object> checkpointConfig =
+                    (BMap<BString, Object>) streamingConfig.getMapValue(CHECKPOINT_CONFIG);
+            try {
+                checkpointStore = CheckpointStore.open(checkpointConfig);
+            } catch (IOException e) {
+                NatsMetricsReporter.reportError(NatsObservabilityConstants.CONTEXT_CONSUMER,
+                                                NatsObservabilityConstants.ERROR_TYPE_CHECKPOINT);
+                return Utils.createNatsError("Error while opening the checkpoint store: " + e.getMessage());
+            }
+        }
         StreamingConnection streamingConnection;
         BString clusterId = streamingConfig.getStringValue(Constants.CLUSTER_ID);
         Object clientId = streamingConfig.get(Constants.CLIENT_ID);
@@ -47,6 +78,7 @@ public class Init {
                                                                            clusterId.getValue(), clientId,
                                                                            streamingConfig);
         } catch (Exception e) {
+            closeQuietly(checkpointStore);
             NatsMetricsReporter.reportError(NatsObservabilityConstants.CONTEXT_STREAMING_CONNNECTION,
                                             NatsObservabilityConstants.ERROR_TYPE_CONNECTION);
             return Utils.createNatsError("Internal error while creating streaming connection " +
@@ -55,10 +87,33 @@ public class Init {
         streamingListener.addNativeData(Constants.URL.getValue(), url);
         streamingListener.addNativeData(Constants.NATS_STREAMING_CONNECTION, streamingConnection);
         streamingListener.addNativeData(Constants.NATS_METRIC_UTIL, new NatsMetricsReporter(streamingConnection));
+        if (compression != null) {
+            streamingListener.addNativeData(Constants.NATS_STREAMING_COMPRESSION, compression);
+        }
+        if (checkpointStore != null) {
+            streamingListener.addNativeData(Constants.NATS_STREAMING_CHECKPOINT_STORE, checkpointStore);
+        }
         ConcurrentHashMap<BObject, StreamingListener> serviceListenerMap = new ConcurrentHashMap<>();
         streamingListener.addNativeData(Constants.STREAMING_DISPATCHER_LIST, serviceListenerMap);
         ConcurrentHashMap<BObject, Subscription> subscriptionsMap = new ConcurrentHashMap<>();
         streamingListener.addNativeData(Constants.STREAMING_SUBSCRIPTION_LIST, subscriptionsMap);
+        ConcurrentHashMap<BObject, StreamingListener> activeListenersMap = new ConcurrentHashMap<>();
+        streamingListener.addNativeData(Constants.STREAMING_ACTIVE_LISTENERS, activeListenersMap);
+        streamingListener.addNativeData(Constants.STREAMING_GRACEFUL_STOP_TIMEOUT,
+                                        ((BDecimal) streamingConfig.get(GRACEFUL_STOP_TIMEOUT)).decimalValue()
+                                                .multiply(BigDecimal.valueOf(1000)).longValue());
         return null;
     }
+
+    private static void closeQuietly(CheckpointStore checkpointStore) {
+        if (checkpointStore == null) {
+            return;
+        }
+        try {
+            checkpointStore.close();
+        } catch (IOException e) {
+            NatsMetricsReporter.reportError(NatsObservabilityConstants.CONTEXT_CONSUMER,
+                                            NatsObservabilityConstants.ERROR_TYPE_CHECKPOINT);
+        }
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.consumer;
+
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Striped lanes which dispatch the messages of a service concurrently across ordering keys, while the messages of
+ * a key are dispatched one at a time in the order they are received. The key of a message is taken from a range of
+ * its content and hashed to the lane the message is dispatched through.
+ * <p>
+ * A lane does not own a thread. The first message of an idle lane is dispatched by the thread which submits it and
+ * the rest are dispatched by the thread which completes the message ahead of them.
+ */
+final class KeyOrderedLanes {
+    private static final BString OFFSET = StringUtils.fromString("offset");
+    private static final BString LENGTH = StringUtils.fromString("length");
+    private static final BString DELIMITER = StringUtils.fromString("delimiter");
+    private static final BString LANES = StringUtils.fromString("lanes");
+    private static final int FNV_OFFSET_BASIS = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+
+    private final int offset;
+    private final int length;
+    private final int delimiter;
+    private final Lane[] lanes;
+
+    private KeyOrderedLanes(int offset, int length, int delimiter, int laneCount) {
+        this.offset = offset;
+        this.length = length;
+        this.delimiter = delimiter;
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane();
+        }
+    }
+
+    /**
+     * Creates the lanes described by a `stan:OrderingKey` record.
+     *
+     * @param orderingKey The `stan:OrderingKey` record.
+     * @return The lanes.
+     * @throws IllegalArgumentException If the configuration is not valid.
+     */
+    static KeyOrderedLanes create(BMap<BString, Object> orderingKey) {
+        int offset = orderingKey.getIntValue(OFFSET).intValue();
+        int length = orderingKey.containsKey(LENGTH) ? orderingKey.getIntValue(LENGTH).intValue() : Integer.MAX_VALUE;
+        int delimiter = orderingKey.containsKey(DELIMITER) ? ((Number) orderingKey.get(DELIMITER)).intValue() : -1;
+        int laneCount = orderingKey.getIntValue(LANES).intValue();
+        if (offset < 0 || length < 0 || laneCount < 1) {
+            throw new IllegalArgumentException("Invalid ordering key configuration: offset and length cannot be " +
+                                                       "negative and there should be at least one lane");
+        }
+        return new KeyOrderedLanes(offset, length, delimiter, laneCount);
+    }
+
+    /**
+     * Returns the lane of the message with the given content.
+     */
+    int laneOf(byte[] content) {
+        int hash = FNV_OFFSET_BASIS;
+        int end = (int) Math.min(content.length, (long) offset + length);
+        for (int i = offset; i < end; i++) {
+            if (content[i] == (byte) delimiter && delimiter >= 0) {
+                break;
+            }
+            hash ^= content[i] & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        return Math.floorMod(hash, lanes.length);
+    }
+
+    /**
+     * Runs the task right away if the lane is idle, or else once the tasks submitted to the lane before it complete.
+     */
+    void submit(int lane, Runnable task) {
+        Lane target = lanes[lane];
+        synchronized (target) {
+            if (target.busy) {
+                target.pending.add(task);
+                return;
+            }
+            target.busy = true;
+        }
+        task.run();
+    }
+
+    /**
+     * Marks the running task of the lane as completed and runs the next task of the lane, if any.
+     */
+    void complete(int lane) {
+        Lane target = lanes[lane];
+        Runnable next;
+        synchronized (target) {
+            next = target.pending.poll();
+            if (next == null) {
+                target.busy = false;
+                return;
+            }
+        }
+        next.run();
+    }
+
+    private static final class Lane {
+        private final Queue<Runnable> pending = new ArrayDeque<>();
+        private boolean busy;
+    }
+}
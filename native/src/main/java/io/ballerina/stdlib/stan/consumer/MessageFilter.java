@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.consumer;
+
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Filter of the messages received by a service, which is evaluated before any Ballerina value is created for a
+ * message. The messages which do not pass the filter are acknowledged without being dispatched.
+ */
+final class MessageFilter {
+    private static final BString CONTENT_PREFIX = StringUtils.fromString("contentPrefix");
+    private static final BString SAMPLE_RATE = StringUtils.fromString("sampleRate");
+
+    private final byte[] contentPrefix;
+    private final double sampleRate;
+
+    private MessageFilter(byte[] contentPrefix, double sampleRate) {
+        this.contentPrefix = contentPrefix;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Creates the filter described by a `stan:MessageFilter` record.
+     *
+     * @param filter The `stan:MessageFilter` record.
+     * @return The filter.
+     * @throws IllegalArgumentException If the configuration is not valid.
+     */
+    static MessageFilter create(BMap<BString, Object> filter) {
+        byte[] contentPrefix = new byte[0];
+        Object prefix = filter.get(CONTENT_PREFIX);
+        if (prefix instanceof BString) {
+            contentPrefix = ((BString) prefix).getValue().getBytes(StandardCharsets.UTF_8);
+        } else if (prefix instanceof BArray) {
+            contentPrefix = ((BArray) prefix).getBytes();
+        }
+        double sampleRate = filter.getFloatValue(SAMPLE_RATE);
+        if (!(sampleRate > 0 && sampleRate <= 1)) {
+            throw new IllegalArgumentException("Invalid message filter: the sample rate should be within (0, 1]");
+        }
+        return new MessageFilter(contentPrefix, sampleRate);
+    }
+
+    boolean accepts(byte[] content) {
+        if (content.length < contentPrefix.length) {
+            return false;
+        }
+        for (int i = 0; i < contentPrefix.length; i++) {
+            if (content[i] != contentPrefix[i]) {
+                return false;
+            }
+        }
+        return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.consumer;
+
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.stdlib.stan.Constants;
+import io.ballerina.stdlib.stan.Utils;
+import io.nats.streaming.Message;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Creates the `stan:Message` records handed to the services and the streams, so that both carry the same fields.
+ */
+final class MessageRecords {
+    private static final BString MESSAGE_SEQUENCE = StringUtils.fromString(Constants.MESSAGE_SEQUENCE);
+    private static final BString MESSAGE_TIMESTAMP = StringUtils.fromString(Constants.MESSAGE_TIMESTAMP);
+    private static final BString MESSAGE_REDELIVERED = StringUtils.fromString(Constants.MESSAGE_REDELIVERED);
+
+    private MessageRecords() {
+    }
+
+    /**
+     * Creates a mutable `stan:Message` record.
+     *
+     * @param msg                 The received message.
+     * @param content             The decoded content of the message.
+     * @param includeDeliveryInfo Whether to set the sequence number, timestamp, and redelivery flag.
+     * @return The record.
+     */
+    static BMap<BString, Object> create(Message msg, byte[] content, boolean includeDeliveryInfo) {
+        BMap<BString, Object> msgRecord = ValueCreator.createRecordValue(
+                Utils.getModule(), Constants.NATS_STREAMING_MESSAGE_OBJ_NAME);
+        Object[] msgRecordValues = new Object[2];
+        msgRecordValues[0] = ValueCreator.createArrayValue(content);
+        msgRecordValues[1] = StringUtils.fromString(msg.getSubject());
+        BMap<BString, Object> populatedMsgRecord = ValueCreator.createRecordValue(msgRecord, msgRecordValues);
+        if (includeDeliveryInfo) {
+            populatedMsgRecord.put(MESSAGE_SEQUENCE, msg.getSequence());
+            populatedMsgRecord.put(MESSAGE_TIMESTAMP, msg.getTimestamp());
+            populatedMsgRecord.put(MESSAGE_REDELIVERED, msg.isRedelivered());
+        }
+        return populatedMsgRecord;
+    }
+
+    /**
+     * Creates a `readonly & stan:Message` record.
+     *
+     * @param msg                 The received message.
+     * @param content             The decoded content of the message.
+     * @param includeDeliveryInfo Whether to set the sequence number, timestamp, and redelivery flag.
+     * @return The record.
+     */
+    static BMap<BString, Object> createReadonly(Message msg, byte[] content, boolean includeDeliveryInfo) {
+        Map<String, Object> valueMap = new HashMap<>();
+        valueMap.put(Constants.MESSAGE_CONTENT, ValueCreator.createArrayValue(content));
+        valueMap.put(Constants.MESSAGE_SUBJECT, StringUtils.fromString(msg.getSubject()));
+        if (includeDeliveryInfo) {
+            valueMap.put(Constants.MESSAGE_SEQUENCE, msg.getSequence());
+            valueMap.put(Constants.MESSAGE_TIMESTAMP, msg.getTimestamp());
+            valueMap.put(Constants.MESSAGE_REDELIVERED, msg.isRedelivered());
+        }
+        return ValueCreator.createReadonlyRecordValue(Utils.getModule(),
+                Constants.NATS_STREAMING_MESSAGE_OBJ_NAME, valueMap);
+    }
+}
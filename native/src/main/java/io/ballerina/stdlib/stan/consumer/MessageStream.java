@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.consumer;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.stdlib.stan.Constants;
+import io.ballerina.stdlib.stan.Utils;
+import io.ballerina.stdlib.stan.observability.NatsMetricsReporter;
+import io.ballerina.stdlib.stan.observability.NatsObservabilityConstants;
+import io.nats.streaming.StreamingConnection;
+import io.nats.streaming.Subscription;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Native implementation of the stream of messages a `stan:Client` subscribes to.
+ */
+public class MessageStream {
+    private static final BString QUEUE_GROUP_CONFIG = StringUtils.fromString("queueGroup");
+    private static final BString MAX_IN_FLIGHT_CONFIG = StringUtils.fromString("maxInFlight");
+    private static final BString POLL_TIMEOUT_CONFIG = StringUtils.fromString("pollTimeout");
+    private static final BString INCLUDE_DELIVERY_INFO_CONFIG = StringUtils.fromString("includeDeliveryInfo");
+
+    @SuppressWarnings("unchecked")
+    public static Object subscribe(BObject messageStream, BObject streamingClient, BString subject,
+                                   BMap<BString, Object> config) {
+        StreamingConnection connection =
+                (StreamingConnection) streamingClient.getNativeData(Constants.NATS_STREAMING_CONNECTION);
+        Set<PullSubscription> pullSubscriptions =
+                (Set<PullSubscription>) streamingClient.getNativeData(Constants.NATS_STREAMING_PULL_SUBSCRIPTIONS);
+        String url = connection.getNatsConnection().getConnectedUrl();
+        long pollTimeoutMillis = 0;
+        if (config.containsKey(POLL_TIMEOUT_CONFIG)) {
+            pollTimeoutMillis = ((BDecimal) config.get(POLL_TIMEOUT_CONFIG)).decimalValue()
+                    .multiply(BigDecimal.valueOf(1000)).longValue();
+            if (pollTimeoutMillis <= 0) {
+                return Utils.createNatsError("The poll timeout should be positive");
+            }
+        }
+        String queueGroup = config.containsKey(QUEUE_GROUP_CONFIG) ?
+                config.getStringValue(QUEUE_GROUP_CONFIG).getValue() : null;
+        PullSubscription pullSubscription = new PullSubscription(
+                url, subject.getValue(), config.getIntValue(MAX_IN_FLIGHT_CONFIG).intValue(), pollTimeoutMillis,
+                streamingClient.getNativeData(Constants.NATS_STREAMING_COMPRESSION) != null,
+                config.getBooleanValue(INCLUDE_DELIVERY_INFO_CONFIG), pullSubscriptions);
+        try {
+            // The options of a subscription are read the same way as those of a service.
+            Subscription subscription = connection.subscribe(subject.getValue(), queueGroup, pullSubscription,
+                                                             Subscribe.buildSubscriptionOptions(config, 0));
+            pullSubscription.setSubscription(subscription);
+        } catch (IOException | InterruptedException | TimeoutException e) {
+            NatsMetricsReporter.reportStreamingError(url, subject.getValue(),
+                                                     NatsObservabilityConstants.CONTEXT_CONSUMER,
+                                                     NatsObservabilityConstants.ERROR_TYPE_SUBSCRIPTION);
+            return Utils.createNatsError("Error while creating the subscription: " + e.getMessage());
+        }
+        NatsMetricsReporter.reportSubscription(url, subject.getValue());
+        pullSubscriptions.add(pullSubscription);
+        messageStream.addNativeData(Constants.NATS_STREAMING_PULL_SUBSCRIPTION, pullSubscription);
+        return null;
+    }
+
+    public static Object next(Environment environment, BObject messageStream) {
+        PullSubscription pullSubscription =
+                (PullSubscription) messageStream.getNativeData(Constants.NATS_STREAMING_PULL_SUBSCRIPTION);
+        pullSubscription.next(environment.markAsync());
+        return null;
+    }
+
+    public static Object close(BObject messageStream) {
+        PullSubscription pullSubscription =
+                (PullSubscription) messageStream.getNativeData(Constants.NATS_STREAMING_PULL_SUBSCRIPTION);
+        return pullSubscription.close();
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.consumer;
+
+import io.ballerina.runtime.api.Future;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.stdlib.stan.Utils;
+import io.ballerina.stdlib.stan.codec.PayloadCompression;
+import io.ballerina.stdlib.stan.observability.NatsMetricsReporter;
+import io.ballerina.stdlib.stan.observability.NatsObservabilityConstants;
+import io.nats.streaming.Message;
+import io.nats.streaming.MessageHandler;
+import io.nats.streaming.Subscription;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subscription consumed as a Ballerina stream. The received messages are queued until the stream asks for them, one
+ * at a time. A message is acknowledged when the stream asks for the next one or is closed, so the server never sends
+ * more than `maxInFlight` messages ahead of the consumer, which also bounds the queue. The subscription is closed once
+ * the stream ends, be it closed or timed out.
+ */
+public class PullSubscription implements MessageHandler {
+    private static final ScheduledExecutorService timeoutScheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "stan-stream-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final String url;
+    private final String subject;
+    private final int capacity;
+    private final long pollTimeoutMillis;
+    private final boolean decompress;
+    private final boolean includeDeliveryInfo;
+    private final Queue<Message> queue;
+    private final Set<PullSubscription> clientSubscriptions;
+    private Subscription subscription;
+    private Future waiter;
+    private ScheduledFuture<?> timeoutTask;
+    private Message current;
+    private boolean closed;
+
+    PullSubscription(String url, String subject, int capacity, long pollTimeoutMillis, boolean decompress,
+                     boolean includeDeliveryInfo, Set<PullSubscription> clientSubscriptions) {
+        this.url = url;
+        this.subject = subject;
+        this.capacity = Math.max(capacity, 1);
+        this.pollTimeoutMillis = pollTimeoutMillis;
+        this.decompress = decompress;
+        this.includeDeliveryInfo = includeDeliveryInfo;
+        this.queue = new ArrayDeque<>(this.capacity);
+        this.clientSubscriptions = clientSubscriptions;
+    }
+
+    synchronized void setSubscription(Subscription subscription) {
+        this.subscription = subscription;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onMessage(Message msg) {
+        Future receiver = null;
+        synchronized (this) {
+            if (closed) {
+                // Left unacknowledged, so that the server redelivers it.
+                return;
+            }
+            if (waiter == null) {
+                // The server does not send more than `maxInFlight` unacknowledged messages, so the queue only
+                // overflows with the redeliveries of the messages still queued, once the consumer falls behind the
+                // ack wait. The message is then left to be redelivered later.
+                if (queue.size() < capacity) {
+                    queue.add(msg);
+                    return;
+                }
+            } else {
+                receiver = takeWaiter();
+                current = msg;
+            }
+        }
+        if (receiver == null) {
+            NatsMetricsReporter.reportStreamingError(url, subject, NatsObservabilityConstants.CONTEXT_CONSUMER,
+                                                     NatsObservabilityConstants.ERROR_TYPE_SLOW_CONSUMER);
+            return;
+        }
+        receiver.complete(createMessageRecord(msg));
+    }
+
+
+    /**
+     * Acknowledges the message returned last and completes the given future with the next message, as soon as there
+     * is one. If the acknowledgement fails, the future is completed with the error and the message is acknowledged
+     * again by the next call. The future is completed with `()` once the stream is closed or no message arrives
+     * within the poll timeout.
+     *
+     * @param future The future of the `next` call.
+     */
+    void next(Future future) {
+        Message processed;
+        synchronized (this) {
+            if (waiter != null) {
+                future.complete(Utils.createNatsError("The stream is already waiting for the next message"));
+                return;
+            }
+            processed = current;
+        }
+        if (processed != null) {
+            try {
+                processed.ack();
+            } catch (IOException e) {
+                // The message stays the current one, so that the next call acknowledges it again.
+                future.complete(Utils.createNatsError("Error while acknowledging the message: " + e.getMessage()));
+                return;
+            }
+        }
+        Message ready;
+        synchronized (this) {
+            if (current == processed) {
+                current = null;
+            }
+            ready = closed ? null : queue.poll();
+            if (ready == null && !closed) {
+                waiter = future;
+                if (pollTimeoutMillis > 0) {
+                    timeoutTask = timeoutScheduler.schedule(() -> expire(future), pollTimeoutMillis,
+                                                            TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+            current = ready;
+        }
+        future.complete(ready == null ? null : createMessageRecord(ready));
+    }
+
+    /**
+     * Closes the subscription and removes it from the subscriptions of the client. The message returned last is
+     * acknowledged, while the queued messages are left to be redelivered by the server. A durable subscription
+     * keeps its position on the server.
+     *
+     * @return An error if the subscription cannot be closed, or else `null`.
+     */
+    public Object close() {
+        clientSubscriptions.remove(this);
+        Future receiver;
+        Message processed;
+        Subscription closedSubscription;
+        synchronized (this) {
+            if (closed) {
+                return null;
+            }
+            closed = true;
+            receiver = waiter == null ? null : takeWaiter();
+            processed = current;
+            current = null;
+            queue.clear();
+            closedSubscription = subscription;
+        }
+        if (receiver != null) {
+            receiver.complete(null);
+        }
+        try {
+            if (processed != null) {
+                processed.ack();
+            }
+            if (closedSubscription != null) {
+                closedSubscription.close();
+                NatsMetricsReporter.reportStreamingUnsubscription(url, subject);
+            }
+        } catch (IOException e) {
+            return Utils.createNatsError("Error while closing the stream: " + e.getMessage());
+        }
+        return null;
+    }
+
+    private void expire(Future future) {
+        synchronized (this) {
+            if (waiter != future) {
+                return;
+            }
+            waiter = null;
+            timeoutTask = null;
+        }
+        // The stream ends here, so the subscription is closed instead of being left to receive messages nobody
+        // asks for.
+        Object closeError = close();
+        if (closeError != null) {
+            NatsMetricsReporter.reportStreamingError(url, subject, NatsObservabilityConstants.CONTEXT_CONSUMER,
+                                                     NatsObservabilityConstants.ERROR_TYPE_CLOSE);
+        }
+        future.complete(closeError);
+    }
+
+    // Should be called while holding the lock.
+    private Future takeWaiter() {
+        Future receiver = waiter;
+        waiter = null;
+        if (timeoutTask != null) {
+            timeoutTask.cancel(false);
+            timeoutTask = null;
+        }
+        return receiver;
+    }
+
+    private BMap<BString, Object> createMessageRecord(Message msg) {
+        byte[] data = msg.getData();
+        NatsMetricsReporter.reportConsume(url, subject, data.length);
+        return MessageRecords.create(msg, decompress ? PayloadCompression.decompress(data) : data,
+                                     includeDeliveryInfo);
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.consumer;
+
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import io.nats.streaming.Message;
+import io.nats.streaming.MessageHandler;
+import io.nats.streaming.StreamingConnection;
+import io.nats.streaming.Subscription;
+import io.nats.streaming.SubscriptionOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongFunction;
+
+/**
+ * Replays a range of sequence numbers of a channel through several ephemeral subscriptions, each started at the
+ * beginning of its own partition of the range. The partitions are received in parallel, so the messages are not
+ * dispatched in the order of the channel.
+ * <p>
+ * A partition is closed once every message of it is settled, that is acknowledged by the listener or completed by
+ * the service, so that no acknowledgement races against the closed subscription. The messages removed from the
+ * channel by the server limits are never delivered. The ones before the first delivered message are settled right
+ * away, while a partition which neither receives nor settles a message within the idle timeout, and has no message
+ * left unsettled, is closed, as its remaining messages are taken to be beyond the end of the channel.
+ */
+final class ReplayPartitions {
+    private static final Logger LOG = LoggerFactory.getLogger(ReplayPartitions.class);
+    private static final BString START_SEQUENCE = StringUtils.fromString("startSequence");
+    private static final BString END_SEQUENCE = StringUtils.fromString("endSequence");
+    private static final BString PARTITIONS = StringUtils.fromString("partitions");
+    private static final BString IDLE_TIMEOUT = StringUtils.fromString("idleTimeout");
+    // Unsubscribing waits for the response of the server, which cannot be done on the thread dispatching the messages.
+    private static final ScheduledExecutorService closer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stan-replay-closer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Partition[] partitions;
+    private final long idleTimeoutNanos;
+
+    private ReplayPartitions(long startSequence, long endSequence, int count, long idleTimeoutNanos) {
+        this.idleTimeoutNanos = idleTimeoutNanos;
+        this.partitions = new Partition[count];
+        // The first `remainder` partitions take one more message, so that exactly `count` partitions are created.
+        long rangeSize = endSequence - startSequence + 1;
+        long partitionSize = rangeSize / count;
+        long remainder = rangeSize % count;
+        long start = startSequence;
+        for (int i = 0; i < count; i++) {
+            long end = start + partitionSize - (i < remainder ? 0 : 1);
+            partitions[i] = new Partition(start, end);
+            start = end + 1;
+        }
+    }
+
+    /**
+     * Creates the partitions described by a `stan:ReplayConfig` record.
+     *
+     * @param replay The `stan:ReplayConfig` record.
+     * @return The partitions.
+     * @throws IllegalArgumentException If the configuration is not valid.
+     */
+    static ReplayPartitions create(BMap<BString, Object> replay) {
+        long start = replay.getIntValue(START_SEQUENCE);
+        long end = replay.getIntValue(END_SEQUENCE);
+        long partitions = replay.getIntValue(PARTITIONS);
+        long idleTimeoutNanos = ((BDecimal) replay.get(IDLE_TIMEOUT)).decimalValue()
+                .multiply(BigDecimal.valueOf(1_000_000_000)).longValue();
+        if (start < 1 || end < start || partitions < 1 || idleTimeoutNanos <= 0) {
+            throw new IllegalArgumentException("Invalid replay configuration: the start sequence should be positive, " +
+                                                       "the end sequence not less than the start sequence and " +
+                                                       "the number of partitions and the idle timeout positive");
+        }
+        // There is no point in partitions smaller than a single message.
+        return new ReplayPartitions(start, end, (int) Math.min(partitions, end - start + 1), idleTimeoutNanos);
+    }
+
+    int getPartitions() {
+        return partitions.length;
+    }
+
+    /**
+     * Subscribes to each partition of the range. The subscriptions created so far are closed if one of them fails.
+     *
+     * @param connection Connection to subscribe through.
+     * @param subject    Subject to replay.
+     * @param listener   Listener the messages within the range are passed to.
+     * @param optionsAt  Creates the options of a subscription starting at the given sequence number.
+     * @return The subscription of the first partition.
+     */
+    Subscription subscribe(StreamingConnection connection, String subject, StreamingListener listener,
+                           LongFunction<SubscriptionOptions> optionsAt)
+            throws IOException, InterruptedException, TimeoutException {
+        Subscription first = null;
+        try {
+            for (Partition partition : partitions) {
+                Subscription subscription = connection.subscribe(subject, partition.handler(listener),
+                                                                 optionsAt.apply(partition.startSequence));
+                partition.setSubscription(subscription);
+                if (first == null) {
+                    first = subscription;
+                }
+            }
+        } catch (IOException | InterruptedException | TimeoutException | RuntimeException e) {
+            try {
+                unsubscribe();
+            } catch (IOException unsubscribeError) {
+                e.addSuppressed(unsubscribeError);
+            }
+            throw e;
+        }
+        return first;
+    }
+
+    /**
+     * Records that the listener is done with the given message, by acknowledging it or by completing its dispatch.
+     *
+     * @param sequence The sequence number of the message.
+     */
+    void settle(long sequence) {
+        int low = 0;
+        int high = partitions.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            Partition partition = partitions[middle];
+            if (sequence < partition.startSequence) {
+                high = middle - 1;
+            } else if (sequence > partition.endSequence) {
+                low = middle + 1;
+            } else {
+                partition.settle(sequence);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Closes the subscriptions of the partitions which are not closed yet.
+     */
+    void unsubscribe() throws IOException {
+        IOException error = null;
+        for (Partition partition : partitions) {
+            try {
+                partition.unsubscribe();
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private final class Partition {
+        private final long startSequence;
+        private final long endSequence;
+        // The messages up to this sequence number are settled, and so are the ones in `settledAhead`.
+        private long settledThrough;
+        private final TreeSet<Long> settledAhead = new TreeSet<>();
+        // The messages received but not settled yet, including the ones held back by the listener.
+        private final Set<Long> unsettled = new HashSet<>();
+        private boolean received;
+        private long lastActivity;
+        private StreamingListener listener;
+        private Subscription subscription;
+        private ScheduledFuture<?> idleCheck;
+        private boolean finished;
+
+        private Partition(long startSequence, long endSequence) {
+            this.startSequence = startSequence;
+            this.endSequence = endSequence;
+            this.settledThrough = startSequence - 1;
+        }
+
+        private MessageHandler handler(StreamingListener streamingListener) {
+            synchronized (this) {
+                this.listener = streamingListener;
+                this.lastActivity = System.nanoTime();
+            }
+            return this::onMessage;
+        }
+
+        private void onMessage(Message msg) {
+            long sequence = msg.getSequence();
+            StreamingListener target;
+            synchronized (this) {
+                if (finished || sequence > endSequence) {
+                    // The messages after the end of the partition are left to the next partition.
+                    return;
+                }
+                if (!received) {
+                    // The server starts at the first message it still has, when the earlier ones are removed.
+                    received = true;
+                    settledThrough = Math.max(settledThrough, sequence - 1);
+                }
+                lastActivity = System.nanoTime();
+                if (sequence > settledThrough && !settledAhead.contains(sequence)) {
+                    unsettled.add(sequence);
+                }
+                target = listener;
+            }
+            target.onMessage(msg);
+        }
+
+        private void settle(long sequence) {
+            synchronized (this) {
+                if (finished || sequence <= settledThrough) {
+                    return;
+                }
+                lastActivity = System.nanoTime();
+                unsettled.remove(sequence);
+                settledAhead.add(sequence);
+                while (!settledAhead.isEmpty() && settledAhead.first() == settledThrough + 1) {
+                    settledThrough = settledAhead.pollFirst();
+                }
+                if (settledThrough < endSequence) {
+                    return;
+                }
+                finished = true;
+            }
+            closer.execute(this::close);
+        }
+
+        private void setSubscription(Subscription subscription) {
+            boolean close;
+            synchronized (this) {
+                this.subscription = subscription;
+                close = finished;
+                if (!close) {
+                    long period = Math.max(idleTimeoutNanos / 2, 1);
+                    idleCheck = closer.scheduleWithFixedDelay(this::checkIdle, period, period, TimeUnit.NANOSECONDS);
+                }
+            }
+            if (close) {
+                // Every message of the partition was settled, or the replay was stopped, before the subscription was
+                // returned.
+                closer.execute(this::close);
+            }
+        }
+
+        private void checkIdle() {
+            long through;
+            synchronized (this) {
+                // A message being processed, or held back until it is redelivered, keeps the partition open however
+                // long it takes.
+                if (finished || !unsettled.isEmpty() || System.nanoTime() - lastActivity < idleTimeoutNanos) {
+                    return;
+                }
+                finished = true;
+                through = settledThrough;
+            }
+            LOG.info("Replay partition {}-{} is idle, so it is closed after sequence {}", startSequence, endSequence,
+                     through);
+            close();
+        }
+
+        private void close() {
+            StreamingListener target;
+            synchronized (this) {
+                target = listener;
+            }
+            if (target != null) {
+                // The acknowledgements deferred by the service cannot be sent once unsubscribed.
+                target.flushDeferredAcks();
+            }
+            try {
+                unsubscribe();
+            } catch (IOException | RuntimeException e) {
+                // The subscription is ephemeral, so the server drops it anyway once the connection is closed.
+                LOG.warn("Failed to close the replay partition {}-{}: {}", startSequence, endSequence,
+                         e.getMessage());
+            }
+        }
+
+        private void unsubscribe() throws IOException {
+            Subscription open;
+            synchronized (this) {
+                open = subscription;
+                subscription = null;
+                finished = true;
+                if (idleCheck != null) {
+                    idleCheck.cancel(false);
+                    idleCheck = null;
+                }
+            }
+            if (open != null) {
+                open.unsubscribe();
+            }
+        }
+    }
+}
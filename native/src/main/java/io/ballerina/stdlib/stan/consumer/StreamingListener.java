@@ -18,14 +18,13 @@
 package io.ballerina.stdlib.stan.consumer;
 
 import io.ballerina.runtime.api.Runtime;
-import io.ballerina.runtime.api.TypeTags;
 import io.ballerina.runtime.api.async.Callback;
 import io.ballerina.runtime.api.async.StrandMetadata;
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.creators.TypeCreator;
 import io.ballerina.runtime.api.creators.ValueCreator;
-import io.ballerina.runtime.api.types.MethodType;
-import io.ballerina.runtime.api.types.ObjectType;
+import io.ballerina.runtime.api.types.ArrayType;
 import io.ballerina.runtime.api.types.Type;
-import io.ballerina.runtime.api.utils.StringUtils;
 import io.ballerina.runtime.api.utils.TypeUtils;
 import io.ballerina.runtime.api.values.BError;
 import io.ballerina.runtime.api.values.BMap;
@@ -35,33 +34,106 @@ import io.ballerina.runtime.observability.ObservabilityConstants;
 import io.ballerina.runtime.observability.ObserveUtils;
 import io.ballerina.stdlib.stan.Constants;
 import io.ballerina.stdlib.stan.Utils;
+import io.ballerina.stdlib.stan.codec.PayloadCompression;
 import io.ballerina.stdlib.stan.observability.NatsMetricsReporter;
 import io.ballerina.stdlib.stan.observability.NatsObservabilityConstants;
 import io.ballerina.stdlib.stan.observability.NatsObserverContext;
 import io.nats.streaming.Message;
 import io.nats.streaming.MessageHandler;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * {@link MessageHandler} implementation to listen to Messages of the subscribed subject from NATS streaming server.
  */
 public class StreamingListener implements MessageHandler {
+    private static final ScheduledExecutorService batchScheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "stan-batch-linger");
+                thread.setDaemon(true);
+                return thread;
+            });
+
     private final BObject service;
+    private final DispatchPlan dispatchPlan;
     private final Runtime runtime;
     private final String connectedUrl;
     private final boolean manualAck;
     private final String subject;
+    private final Semaphore inFlightPermits;
+    private final int maxBatchSize;
+    private final long batchLingerMillis;
+    private final Object batchLock = new Object();
+    private List<Message> pendingBatch;
+    // The decoded content of each message of the pending batch, at the same index.
+    private List<byte[]> pendingContents;
+    private long pendingBatchArrivedAt;
+    private ScheduledFuture<?> lingerTask;
+    private final ArrayType messageArrayType;
+    private final boolean decompress;
+    private final KeyOrderedLanes orderingLanes;
+    private final AckCoalescer ackCoalescer;
+    private final boolean includeDeliveryInfo;
+    private final CheckpointStore.Tracker checkpointTracker;
+    private final DeduplicationWindow deduplicationWindow;
+    private final DeadLetterPolicy deadLetterPolicy;
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveLimit adaptiveLimit;
+    private final ReplayPartitions replayPartitions;
+    private final MessageFilter filter;
+    private final int maxPermits;
+    private volatile boolean draining;
 
-    public StreamingListener(BObject service, boolean manualAck, Runtime runtime,
-                             Object connectedUrl, String subject) {
+    public StreamingListener(BObject service, DispatchPlan dispatchPlan, boolean manualAck, Runtime runtime,
+                             Object connectedUrl, String subject, int maxInFlight, int maxBatchSize,
+                             long batchLingerMillis, boolean decompress, KeyOrderedLanes orderingLanes,
+                             int ackBatchSize, long ackFlushMillis, boolean includeDeliveryInfo,
+                             CheckpointStore.Tracker checkpointTracker, DeduplicationWindow deduplicationWindow,
+                             DeadLetterPolicy deadLetterPolicy, CircuitBreaker circuitBreaker,
+                             AdaptiveLimit adaptiveLimit, ReplayPartitions replayPartitions,
+                             MessageFilter filter) {
         this.service = service;
+        this.dispatchPlan = dispatchPlan;
         this.runtime = runtime;
         this.manualAck = manualAck;
         this.subject = subject;
         this.connectedUrl = Utils.getCommaSeparatedUrl(connectedUrl);
+        this.maxBatchSize = Math.max(maxBatchSize, 1);
+        this.batchLingerMillis = Math.max(batchLingerMillis, 0);
+        this.decompress = decompress;
+        this.orderingLanes = orderingLanes;
+        this.ackCoalescer = manualAck ? new AckCoalescer(this.connectedUrl, subject, ackBatchSize, ackFlushMillis)
+                : null;
+        this.includeDeliveryInfo = includeDeliveryInfo;
+        this.checkpointTracker = checkpointTracker;
+        this.deduplicationWindow = deduplicationWindow;
+        this.deadLetterPolicy = deadLetterPolicy;
+        this.circuitBreaker = circuitBreaker;
+        if (circuitBreaker != null) {
+            circuitBreaker.setStateListener(open -> NatsMetricsReporter.reportCircuitBreakerState(
+                    this.connectedUrl, subject, dispatchPlan.getServiceName(), open));
+        }
+        this.adaptiveLimit = adaptiveLimit;
+        this.replayPartitions = replayPartitions;
+        this.filter = filter;
+        this.pendingBatch = new ArrayList<>(this.maxBatchSize);
+        this.pendingContents = new ArrayList<>(this.maxBatchSize);
+        this.messageArrayType = TypeCreator.createArrayType(TypeUtils.getType(ValueCreator.createRecordValue(
+                Utils.getModule(), Constants.NATS_STREAMING_MESSAGE_OBJ_NAME)));
+        // Isolated services are dispatched concurrently, bounded by the number of messages the server is allowed
+        // to keep in flight. Other services are dispatched one message (or one batch) at a time.
+        this.maxPermits = dispatchPlan.isConcurrent() ? Math.max(maxInFlight, 1) : 1;
+        this.inFlightPermits = new Semaphore(maxPermits);
     }
 
     /**
@@ -69,92 +141,316 @@ public class StreamingListener implements MessageHandler {
      */
     @Override
     public void onMessage(Message msg) {
-        NatsMetricsReporter.reportConsume(connectedUrl, subject, msg.getData().length);
-        BMap<BString, Object> msgRecord = ValueCreator.createRecordValue(
-                Utils.getModule(), Constants.NATS_STREAMING_MESSAGE_OBJ_NAME);
-        Object[] msgRecordValues = new Object[2];
-
-        msgRecordValues[0] = ValueCreator.createArrayValue(msg.getData());
-        msgRecordValues[1] = StringUtils.fromString(msg.getSubject());
-
-        BMap<BString, Object> populatedMsgRecord = ValueCreator.createRecordValue(msgRecord, msgRecordValues);
-
-        BObject callerObj = ValueCreator.createObjectValue(Utils.getModule(), Constants.NATS_CALLER);
-        callerObj.addNativeData(Constants.NATS_STREAMING_MSG, msg);
-        callerObj.addNativeData(Constants.NATS_STREAMING_MANUAL_ACK.getValue(), manualAck);
-
-        MethodType onMessageResource = Utils.getAttachedFunctionType(service, "onMessage");
-        Type returnType = onMessageResource.getReturnType();
-        Type[] parameterTypes = onMessageResource.getParameterTypes();
-        if (parameterTypes.length == 1) {
-            Object[] args1 = new Object[2];
-            if (parameterTypes[0].getTag() == TypeTags.INTERSECTION_TAG) {
-                args1[0] = getReadonlyMessage(msg);
-            } else {
-                args1[0] = populatedMsgRecord;
-            }
-            args1[1] = true;
-            dispatch(args1, msg.getSubject(), returnType);
-        } else if (parameterTypes.length == 2) {
-            Object[] args2 = new Object[4];
-            if (parameterTypes[0].getTag() == TypeTags.INTERSECTION_TAG) {
-                args2[0] = getReadonlyMessage(msg);
-            } else {
-                args2[0] = populatedMsgRecord;
-            }
-            args2[1] = true;
-            args2[2] = callerObj;
-            args2[3] = true;
-            dispatch(args2, msg.getSubject(), returnType);
-        } else {
+        if (checkpointTracker != null) {
+            // Tracked from its arrival, so that the checkpoint never moves past a message which is left to be
+            // redelivered, be it while draining, held back by the circuit breaker, or failing to dispatch.
+            checkpointTracker.begin(msg.getSequence());
+        }
+        if (draining) {
+            // Left unacknowledged, so that the server redelivers it once the listener is restarted.
+            return;
+        }
+        long arrivedAt = System.nanoTime();
+        // Each call to `getData` copies the payload out of the protocol buffer, so it is read only once here.
+        byte[] data = msg.getData();
+        NatsMetricsReporter.reportConsume(connectedUrl, subject, data.length);
+        NatsMetricsReporter.reportDeliveryInfo(connectedUrl, subject, msg.getSequence(), msg.getTimestamp(),
+                                               msg.isRedelivered());
+        if (adaptiveLimit != null && msg.isRedelivered() && adaptiveLimit.onRedelivery()) {
+            // A redelivery means that an acknowledgement missed the ack wait, so the handlers are falling behind.
+            reportConcurrencyLimit();
+        }
+        byte[] content = decompress ? PayloadCompression.decompress(data) : data;
+        if (filter != null && !filter.accepts(content)) {
+            // Not meant for the service, so it is acknowledged here instead of being dispatched.
+            NatsMetricsReporter.reportFiltered(connectedUrl, subject);
+            ackQuietly(msg);
+            settle(msg);
+            return;
+        }
+        if (deduplicationWindow != null && msg.isRedelivered() && deduplicationWindow.contains(msg.getSequence())) {
+            // Already processed, but the acknowledgement did not reach the server in time.
+            NatsMetricsReporter.reportDeduplicated(connectedUrl, subject);
+            ackQuietly(msg);
+            settle(msg);
+            return;
+        }
+        if (circuitBreaker != null && !circuitBreaker.allowDispatch(msg.getSequence())) {
+            // Left unacknowledged, so that the server redelivers it once the circuit is expected to close. The
+            // redelivery is not counted against the `maxRedeliveries`, as the service did not get the message.
+            return;
+        }
+        try {
+            dispatchAdmitted(msg, data, content, arrivedAt);
+        } catch (RuntimeException e) {
+            // The message is left to be redelivered, so the probe admitted for it, if any, is given up.
+            abandonProbe(msg);
+            throw e;
+        }
+    }
+
+    // Dispatches a message admitted by the circuit breaker, or dead letters it.
+    private void dispatchAdmitted(Message msg, byte[] data, byte[] content, long arrivedAt) {
+        if (deadLetterPolicy != null && deadLetterPolicy.recordDelivery(msg)) {
+            abandonProbe(msg);
+            deadLetterPolicy.deadLetter(msg, data);
+            settle(msg);
+            return;
+        }
+        if (dispatchPlan.isBatch()) {
+            addToBatch(msg, content, arrivedAt);
+            return;
+        }
+        int arity = dispatchPlan.getArity();
+        if (arity != 1 && arity != 2) {
             throw Utils.createNatsError("Invalid remote function signature");
         }
+        // Only the value the signature of the resource asks for is created, and it shares the content bytes.
+        Object[] args = new Object[arity * 2];
+        args[0] = dispatchPlan.isReadonlyMessage() ? getReadonlyMessage(msg, content)
+                : createMessageRecord(msg, content);
+        args[1] = true;
+        if (arity == 2) {
+            BObject callerObj = ValueCreator.createObjectValue(Utils.getModule(), Constants.NATS_CALLER);
+            callerObj.addNativeData(Constants.NATS_STREAMING_MSG, msg);
+            callerObj.addNativeData(Constants.NATS_STREAMING_MANUAL_ACK.getValue(), manualAck);
+            callerObj.addNativeData(Constants.NATS_STREAMING_ACK_COALESCER, ackCoalescer);
+            args[2] = callerObj;
+            args[3] = true;
+        }
+        dispatch(msg, content, args, arrivedAt);
     }
 
-    private BMap<BString, Object> getReadonlyMessage(Message msg) {
-        Map<String, Object> valueMap = new HashMap<>();
-        valueMap.put(Constants.MESSAGE_CONTENT, ValueCreator.createArrayValue(msg.getData()));
-        valueMap.put(Constants.MESSAGE_SUBJECT, StringUtils.fromString(msg.getSubject()));
-        return ValueCreator.createReadonlyRecordValue(Utils.getModule(),
-                Constants.NATS_STREAMING_MESSAGE_OBJ_NAME, valueMap);
+    private BMap<BString, Object> createMessageRecord(Message msg, byte[] content) {
+        return MessageRecords.create(msg, content, includeDeliveryInfo);
     }
 
-    private void dispatch(Object[] args, String subject, Type returnType) {
-        executeResource(subject, args, returnType);
+    private BMap<BString, Object> getReadonlyMessage(Message msg, byte[] content) {
+        return MessageRecords.createReadonly(msg, content, includeDeliveryInfo);
     }
 
-    private void executeResource(String subject, Object[] args, Type returnType) {
-        CountDownLatch countDownLatch = new CountDownLatch(1);
-        StrandMetadata metadata = new StrandMetadata(Utils.getModule().getOrg(), Utils.getModule().getName(),
-                                                     Utils.getModule().getVersion(), Constants.ON_MESSAGE_RESOURCE);
-        ObjectType serviceType = (ObjectType) TypeUtils.getReferredType(TypeUtils.getType(service));
-        if (ObserveUtils.isTracingEnabled()) {
-            Map<String, Object> properties = new HashMap<>();
-            NatsObserverContext observerContext = new NatsObserverContext(NatsObservabilityConstants.CONTEXT_CONSUMER,
-                                                                          connectedUrl, subject);
-            properties.put(ObservabilityConstants.KEY_OBSERVER_CONTEXT, observerContext);
-            if (serviceType.isIsolated() && serviceType.isIsolated(Constants.ON_MESSAGE_RESOURCE)) {
-                runtime.invokeMethodAsyncConcurrently(service, Constants.ON_MESSAGE_RESOURCE, null, metadata,
-                        new DispatcherCallback(connectedUrl, subject, countDownLatch), properties, returnType, args);
+    private void addToBatch(Message msg, byte[] content, long arrivedAt) {
+        boolean full;
+        synchronized (batchLock) {
+            if (pendingBatch.isEmpty()) {
+                pendingBatchArrivedAt = arrivedAt;
+            }
+            pendingBatch.add(msg);
+            pendingContents.add(content);
+            full = pendingBatch.size() >= maxBatchSize;
+            if (!full && lingerTask == null) {
+                lingerTask = batchScheduler.schedule(this::flushBatch, batchLingerMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full) {
+            acquirePermit();
+            List<Message> batch;
+            List<byte[]> contents;
+            long batchArrivedAt;
+            synchronized (batchLock) {
+                batchArrivedAt = pendingBatchArrivedAt;
+                contents = pendingContents;
+                batch = takeBatch();
+            }
+            if (batch.isEmpty()) {
+                // The linger task has already delivered the batch.
+                releasePermit(-1);
             } else {
-                runtime.invokeMethodAsyncSequentially(service, Constants.ON_MESSAGE_RESOURCE, null, metadata,
-                        new DispatcherCallback(connectedUrl, subject, countDownLatch), properties, returnType, args);
+                dispatchBatch(batch, contents, batchArrivedAt);
+            }
+        }
+    }
+
+    private void flushBatch() {
+        List<Message> batch;
+        List<byte[]> contents;
+        long batchArrivedAt;
+        synchronized (batchLock) {
+            lingerTask = null;
+            if (pendingBatch.isEmpty()) {
+                return;
             }
+            if (!tryAcquirePermit()) {
+                // Never park the shared linger thread. Retry once the in-flight messages make some progress.
+                lingerTask = batchScheduler.schedule(this::flushBatch, Math.max(batchLingerMillis, 1),
+                                                     TimeUnit.MILLISECONDS);
+                return;
+            }
+            batchArrivedAt = pendingBatchArrivedAt;
+            contents = pendingContents;
+            batch = takeBatch();
+        }
+        dispatchBatch(batch, contents, batchArrivedAt);
+    }
+
+    // Should be called while holding the batch lock.
+    private List<Message> takeBatch() {
+        List<Message> batch = pendingBatch;
+        pendingBatch = new ArrayList<>(maxBatchSize);
+        pendingContents = new ArrayList<>(maxBatchSize);
+        if (lingerTask != null) {
+            lingerTask.cancel(false);
+            lingerTask = null;
+        }
+        return batch;
+    }
+
+    // Should be called while holding an in-flight permit. The dispatch delay of a batch is measured from the arrival
+    // of its first message.
+    private void dispatchBatch(List<Message> batch, List<byte[]> contents, long arrivedAt) {
+        Object[] args;
+        int arity = dispatchPlan.getArity();
+        if (arity == 1) {
+            args = new Object[2];
+        } else if (arity == 2) {
+            BObject callerObj = ValueCreator.createObjectValue(Utils.getModule(), Constants.NATS_CALLER);
+            callerObj.addNativeData(Constants.NATS_STREAMING_MSG_BATCH, batch);
+            callerObj.addNativeData(Constants.NATS_STREAMING_MANUAL_ACK.getValue(), manualAck);
+            callerObj.addNativeData(Constants.NATS_STREAMING_ACK_COALESCER, ackCoalescer);
+            args = new Object[4];
+            args[2] = callerObj;
+            args[3] = true;
         } else {
-            if (serviceType.isIsolated() && serviceType.isIsolated(Constants.ON_MESSAGE_RESOURCE)) {
-                runtime.invokeMethodAsyncConcurrently(service, Constants.ON_MESSAGE_RESOURCE, null, metadata,
-                        new DispatcherCallback(connectedUrl, subject, countDownLatch), null, returnType, args);
-            } else {
-                runtime.invokeMethodAsyncSequentially(service, Constants.ON_MESSAGE_RESOURCE, null, metadata,
-                        new DispatcherCallback(connectedUrl, subject, countDownLatch), null, returnType, args);
+            for (Message batchMessage : batch) {
+                abandonProbe(batchMessage);
             }
+            releasePermit(-1);
+            throw Utils.createNatsError("Invalid remote function signature");
+        }
+        Object[] msgRecords = new Object[batch.size()];
+        for (int i = 0; i < msgRecords.length; i++) {
+            msgRecords[i] = createMessageRecord(batch.get(i), contents.get(i));
+        }
+        args[0] = ValueCreator.createArrayValue(msgRecords, messageArrayType);
+        args[1] = true;
+        long dispatchedAt = reportDispatchDelay(subject, arrivedAt);
+        invoke(new DispatcherCallback(subject, dispatchedAt, batch), args);
+    }
+
+    private void dispatch(Message msg, byte[] content, Object[] args, long arrivedAt) {
+        // Blocks the dispatcher thread only when all the in-flight permits are taken, which pushes back on the
+        // server through the unacknowledged messages.
+        acquirePermit();
+        if (orderingLanes == null) {
+            executeResource(msg, content, args, arrivedAt, -1);
+        } else {
+            // The permit is held while the message waits in its lane, so the lanes never queue more than
+            // `maxInFlight` messages.
+            int lane = orderingLanes.laneOf(content);
+            orderingLanes.submit(lane, () -> executeResource(msg, content, args, arrivedAt, lane));
         }
+    }
+
+    private void executeResource(Message msg, byte[] content, Object[] args, long arrivedAt, int lane) {
+        long dispatchedAt = reportDispatchDelay(msg.getSubject(), arrivedAt);
+        invoke(new DispatcherCallback(msg.getSubject(), dispatchedAt, msg, content, args[0], lane), args);
+    }
+
+    // The runtime does not expose the start of the strand, so the time the invocation is handed over to the runtime
+    // is taken as the start of the execution.
+    private long reportDispatchDelay(String msgSubject, long arrivedAt) {
+        long dispatchedAt = System.nanoTime();
+        NatsMetricsReporter.reportDispatchDelay(connectedUrl, msgSubject, dispatchPlan.getServiceName(),
+                                                dispatchedAt - arrivedAt);
+        return dispatchedAt;
+    }
+
+    private void acquirePermit() {
+        boolean adaptiveAcquired = false;
         try {
-            countDownLatch.await();
+            if (adaptiveLimit != null) {
+                // Admits messages below the limit adapted to the latency of the service, which never exceeds the
+                // in-flight permits, so the permit below is then taken without blocking.
+                adaptiveLimit.acquire();
+                adaptiveAcquired = true;
+            }
+            inFlightPermits.acquire();
         } catch (InterruptedException e) {
+            if (adaptiveAcquired) {
+                // Otherwise every interruption would lower the effective limit for good.
+                adaptiveLimit.release(-1);
+            }
             Thread.currentThread().interrupt();
             throw Utils.createNatsError("Error occurred in STAN service. " +
-                    "The current thread got interrupted" + e.getCause().getMessage());
+                    "The current thread got interrupted: " + e.getMessage());
+        }
+    }
+
+    private boolean tryAcquirePermit() {
+        if (adaptiveLimit != null && !adaptiveLimit.tryAcquire()) {
+            return false;
+        }
+        if (!inFlightPermits.tryAcquire()) {
+            if (adaptiveLimit != null) {
+                adaptiveLimit.release(-1);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    // A negative latency releases the permit without counting it as a sample of the service latency.
+    private void releasePermit(long latencyNanos) {
+        inFlightPermits.release();
+        if (adaptiveLimit != null && adaptiveLimit.release(latencyNanos)) {
+            reportConcurrencyLimit();
+        }
+    }
+
+    private void reportConcurrencyLimit() {
+        NatsMetricsReporter.reportConcurrencyLimit(connectedUrl, subject, dispatchPlan.getServiceName(),
+                                                   adaptiveLimit.getLimit());
+    }
+
+    private void invoke(DispatcherCallback callback, Object[] args) {
+        String resourceName = dispatchPlan.getResourceName();
+        StrandMetadata metadata = dispatchPlan.getMetadata();
+        Type returnType = dispatchPlan.getReturnType();
+        try {
+            if (ObserveUtils.isTracingEnabled()) {
+                Map<String, Object> properties = new HashMap<>();
+                NatsObserverContext observerContext = new NatsObserverContext(
+                        NatsObservabilityConstants.CONTEXT_CONSUMER, connectedUrl, callback.subject);
+                properties.put(ObservabilityConstants.KEY_OBSERVER_CONTEXT, observerContext);
+                if (dispatchPlan.isConcurrent()) {
+                    runtime.invokeMethodAsyncConcurrently(service, resourceName, null, metadata,
+                            callback, properties, returnType, args);
+                } else {
+                    runtime.invokeMethodAsyncSequentially(service, resourceName, null, metadata,
+                            callback, properties, returnType, args);
+                }
+            } else {
+                if (dispatchPlan.isConcurrent()) {
+                    runtime.invokeMethodAsyncConcurrently(service, resourceName, null, metadata,
+                            callback, null, returnType, args);
+                } else {
+                    runtime.invokeMethodAsyncSequentially(service, resourceName, null, metadata,
+                            callback, null, returnType, args);
+                }
+            }
+        } catch (RuntimeException e) {
+            callback.abandon();
+            throw e;
+        }
+    }
+
+    private void ackQuietly(Message msg) {
+        try {
+            msg.ack();
+        } catch (IOException e) {
+            NatsMetricsReporter.reportStreamingError(connectedUrl, subject, NatsObservabilityConstants.CONTEXT_CONSUMER,
+                                                     NatsObservabilityConstants.ERROR_TYPE_ACKNOWLEDGEMENT);
+        }
+    }
+
+    // Records that the listener is done with the message, which moves the checkpoint and lets the replay partition
+    // of the message close once all of its messages are settled.
+    private void settle(Message msg) {
+        if (checkpointTracker != null) {
+            checkpointTracker.complete(msg.getSequence());
+        }
+        if (replayPartitions != null) {
+            replayPartitions.settle(msg.getSequence());
         }
     }
 
@@ -162,30 +458,228 @@ public class StreamingListener implements MessageHandler {
         return this.subject;
     }
 
-    private static class DispatcherCallback implements Callback {
-        private final String url;
+    CheckpointStore.Tracker getCheckpointTracker() {
+        return this.checkpointTracker;
+    }
+
+    ReplayPartitions getReplayPartitions() {
+        return this.replayPartitions;
+    }
+
+    /**
+     * Stops dispatching the messages received from now on.
+     */
+    void startDraining() {
+        draining = true;
+    }
+
+    /**
+     * Waits until the dispatched messages and the pending batch, if any, are processed.
+     *
+     * @param deadline  The {@link System#nanoTime()} to stop waiting at.
+     * @param pollNanos The maximum time to wait before checking the pending batch again.
+     * @return True if all the messages were processed before the deadline.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    boolean awaitIdle(long deadline, long pollNanos) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (!inFlightPermits.tryAcquire(maxPermits, Math.min(remaining, pollNanos), TimeUnit.NANOSECONDS)) {
+                continue;
+            }
+            inFlightPermits.release(maxPermits);
+            boolean batchPending;
+            synchronized (batchLock) {
+                batchPending = !pendingBatch.isEmpty();
+            }
+            if (!batchPending) {
+                return true;
+            }
+            // Delivers the batch without waiting for its linger time.
+            flushBatch();
+        }
+        return false;
+    }
+
+    /**
+     * Sends the acknowledgements deferred through the caller, which are still queued.
+     */
+    public void flushDeferredAcks() {
+        if (ackCoalescer != null) {
+            ackCoalescer.flush();
+        }
+    }
+
+    // Called for a message admitted by the circuit breaker, which is not dispatched after all.
+    private void abandonProbe(Message msg) {
+        if (circuitBreaker != null) {
+            circuitBreaker.abandon(msg.getSequence());
+        }
+    }
+
+    private void recordOutcome(boolean failed, List<Message> messages) {
+        if (circuitBreaker != null) {
+            circuitBreaker.record(failed, messages);
+        }
+    }
+
+    private void invokeOnError(Object message, BError error, Callback callback) {
+        Object[] args = new Object[]{message, true, Utils.createNatsError(error.getMessage(), error), true};
+        try {
+            Map<String, Object> properties = null;
+            if (ObserveUtils.isTracingEnabled()) {
+                properties = new HashMap<>();
+                properties.put(ObservabilityConstants.KEY_OBSERVER_CONTEXT, new NatsObserverContext(
+                        NatsObservabilityConstants.CONTEXT_CONSUMER, connectedUrl, subject));
+            }
+            if (dispatchPlan.isOnErrorConcurrent()) {
+                runtime.invokeMethodAsyncConcurrently(service, Constants.ON_ERROR_RESOURCE, null,
+                        dispatchPlan.getOnErrorMetadata(), callback, properties, dispatchPlan.getOnErrorReturnType(),
+                        args);
+            } else {
+                runtime.invokeMethodAsyncSequentially(service, Constants.ON_ERROR_RESOURCE, null,
+                        dispatchPlan.getOnErrorMetadata(), callback, properties, dispatchPlan.getOnErrorReturnType(),
+                        args);
+            }
+        } catch (RuntimeException e) {
+            callback.notifyFailure(ErrorCreator.createError(e));
+        }
+    }
+
+    private class DispatcherCallback implements Callback {
         private final String subject;
-        private final CountDownLatch countDownLatch;
+        private final long dispatchedAt;
+        private final Message message;
+        private final byte[] content;
+        private final Object messageArg;
+        private final List<Message> batch;
+        private final int lane;
+
+        public DispatcherCallback(String subject, long dispatchedAt, Message message, byte[] content,
+                                  Object messageArg, int lane) {
+            this.subject = subject;
+            this.dispatchedAt = dispatchedAt;
+            this.message = message;
+            this.content = content;
+            this.messageArg = messageArg;
+            this.batch = null;
+            this.lane = lane;
+        }
 
-        public DispatcherCallback(String url, String subject, CountDownLatch countDownLatch) {
-            this.url = url;
+        public DispatcherCallback(String subject, long dispatchedAt, List<Message> batch) {
             this.subject = subject;
-            this.countDownLatch = countDownLatch;
+            this.dispatchedAt = dispatchedAt;
+            this.message = null;
+            this.content = null;
+            this.messageArg = null;
+            this.batch = batch;
+            this.lane = -1;
         }
 
         @Override
         public void notifySuccess(Object obj) {
+            NatsMetricsReporter.reportExecutionTime(connectedUrl, subject, dispatchPlan.getServiceName(),
+                                                    System.nanoTime() - dispatchedAt);
             if (obj instanceof BError) {
-                ((BError) obj).printStackTrace();
+                fail((BError) obj);
+                return;
             }
-            NatsMetricsReporter.reportDelivery(url, subject);
-            countDownLatch.countDown();
+            recordOutcome(false, messages());
+            if (deduplicationWindow != null) {
+                if (batch != null) {
+                    for (Message batchMessage : batch) {
+                        deduplicationWindow.add(batchMessage.getSequence());
+                    }
+                } else {
+                    deduplicationWindow.add(message.getSequence());
+                }
+            }
+            if (batch != null) {
+                for (int i = 0; i < batch.size(); i++) {
+                    NatsMetricsReporter.reportDelivery(connectedUrl, subject);
+                }
+            } else {
+                NatsMetricsReporter.reportDelivery(connectedUrl, subject);
+            }
+            complete();
         }
 
         @Override
-        public void notifyFailure(io.ballerina.runtime.api.values.BError error) {
-            error.printStackTrace();
-            countDownLatch.countDown();
+        public void notifyFailure(BError error) {
+            NatsMetricsReporter.reportExecutionTime(connectedUrl, subject, dispatchPlan.getServiceName(),
+                                                    System.nanoTime() - dispatchedAt);
+            fail(error);
+        }
+
+        private void fail(BError error) {
+            recordOutcome(true, messages());
+            if (messageArg == null || !dispatchPlan.hasOnError()) {
+                error.printStackTrace();
+                complete();
+                return;
+            }
+            // The message is completed once `onError` returns, so that a sequential service still processes the
+            // next message only after the failure is handled.
+            // `onError` may declare the message readonly or not, independently of `onMessage`.
+            Object onErrorArg = messageArg;
+            if (dispatchPlan.isOnErrorReadonlyMessage() != dispatchPlan.isReadonlyMessage()) {
+                onErrorArg = dispatchPlan.isOnErrorReadonlyMessage() ? getReadonlyMessage(message, content)
+                        : createMessageRecord(message, content);
+            }
+            invokeOnError(onErrorArg, error, new Callback() {
+                @Override
+                public void notifySuccess(Object result) {
+                    if (result instanceof BError) {
+                        ((BError) result).printStackTrace();
+                    }
+                    complete();
+                }
+
+                @Override
+                public void notifyFailure(BError onErrorFailure) {
+                    onErrorFailure.printStackTrace();
+                    complete();
+                }
+            });
+        }
+
+        private void complete() {
+            // The subscription always uses manual acknowledgements, so that the auto acknowledgement is sent only
+            // after the message is processed and not when the dispatcher hands it over.
+            if (!manualAck) {
+                if (batch != null) {
+                    for (Message batchMessage : batch) {
+                        ackQuietly(batchMessage);
+                    }
+                } else {
+                    ackQuietly(message);
+                }
+            }
+            for (Message completed : messages()) {
+                settle(completed);
+            }
+            release(System.nanoTime() - dispatchedAt);
+        }
+
+        private List<Message> messages() {
+            return batch != null ? batch : Collections.singletonList(message);
+        }
+
+        // Releases the message, or batch, which could not be dispatched.
+        private void abandon() {
+            // The messages stay tracked by the checkpoint until they are redelivered and completed.
+            for (Message abandoned : messages()) {
+                abandonProbe(abandoned);
+            }
+            release(-1);
+        }
+
+        private void release(long latencyNanos) {
+            releasePermit(latencyNanos);
+            if (orderingLanes != null && lane >= 0) {
+                // Dispatches the next message of the lane, if any, from the thread completing this one.
+                orderingLanes.complete(lane);
+            }
         }
     }
 }
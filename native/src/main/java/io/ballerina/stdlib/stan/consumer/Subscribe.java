@@ -24,6 +24,7 @@ import io.ballerina.runtime.api.utils.StringUtils;
 import io.ballerina.runtime.api.utils.TypeUtils;
 import io.ballerina.runtime.api.values.BArray;
 import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BError;
 import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BObject;
 import io.ballerina.runtime.api.values.BString;
@@ -38,9 +39,14 @@ import io.nats.streaming.SubscriptionOptions;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.time.Duration;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeoutException;
 
 import static io.ballerina.runtime.api.constants.RuntimeConstants.ORG_NAME_SEPARATOR;
@@ -51,6 +57,7 @@ import static io.ballerina.runtime.api.constants.RuntimeConstants.VERSION_SEPARA
  */
 public class Subscribe {
     private static final PrintStream console;
+    private static final int MAX_PARALLEL_SUBSCRIPTIONS = 32;
     private static final String STREAMING_SUBSCRIPTION_CONFIG = "ServiceConfig";
     private static final BString QUEUE_NAME_ANNOTATION_FIELD = StringUtils.fromString("queueGroup");
     private static final BString DURABLE_NAME_ANNOTATION_FIELD = StringUtils.fromString("durableName");
@@ -58,7 +65,6 @@ public class Subscribe {
     private static final BString ACK_WAIT_ANNOTATION_FIELD = StringUtils.fromString("ackWait");
     private static final BString SUBSCRIPTION_TIMEOUT_ANNOTATION_FIELD = StringUtils.fromString(
             "subscriptionTimeout");
-    private static final BString MANUAL_ACK_ANNOTATION_FIELD = StringUtils.fromString("autoAck");
     private static final BString START_POSITION_ANNOTATION_FIELD = StringUtils.fromString("startPosition");
 
     public static void streamingSubscribe(BObject streamingListener) {
@@ -71,16 +77,55 @@ public class Subscribe {
         ConcurrentHashMap<BObject, Subscription> subscriptionsMap =
                 (ConcurrentHashMap<BObject, Subscription>) streamingListener
                         .getNativeData(Constants.STREAMING_SUBSCRIPTION_LIST);
-        Iterator serviceListeners = serviceListenerMap.entrySet().iterator();
+        ConcurrentHashMap<BObject, StreamingListener> activeListenersMap =
+                (ConcurrentHashMap<BObject, StreamingListener>) streamingListener
+                        .getNativeData(Constants.STREAMING_ACTIVE_LISTENERS);
         StreamingConnection streamingConnection =
                 (StreamingConnection) streamingListener.getNativeData(Constants.NATS_STREAMING_CONNECTION);
-        while (serviceListeners.hasNext()) {
-            Map.Entry pair = (Map.Entry) serviceListeners.next();
-            Subscription sub =
-                    createSubscription((BObject) pair.getKey(), (StreamingListener) pair.getValue(),
-                                       streamingConnection, natsMetricsReporter);
-            subscriptionsMap.put((BObject) pair.getKey(), sub);
-            serviceListeners.remove(); // avoids a ConcurrentModificationException
+        List<Map.Entry<BObject, StreamingListener>> pending = new ArrayList<>(serviceListenerMap.entrySet());
+        if (pending.isEmpty()) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        // Each subscription is a request to the server, so the services are subscribed concurrently instead of
+        // waiting for the responses one after the other.
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(pending.size(), MAX_PARALLEL_SUBSCRIPTIONS), runnable -> {
+                    Thread thread = new Thread(runnable, "stan-subscriber");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        List<String> errors = new ArrayList<>();
+        try {
+            List<Future<Subscription>> subscriptions = new ArrayList<>(pending.size());
+            for (Map.Entry<BObject, StreamingListener> entry : pending) {
+                subscriptions.add(executor.submit(() -> createSubscription(entry.getKey(), entry.getValue(),
+                                                                           streamingConnection,
+                                                                           natsMetricsReporter)));
+            }
+            for (int i = 0; i < pending.size(); i++) {
+                BObject service = pending.get(i).getKey();
+                StreamingListener messageHandler = pending.get(i).getValue();
+                try {
+                    subscriptionsMap.put(service, subscriptions.get(i).get());
+                    activeListenersMap.put(service, messageHandler);
+                    serviceListenerMap.remove(service);
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    String message = cause instanceof BError ? ((BError) cause).getMessage() : cause.getMessage();
+                    errors.add(messageHandler.getSubject() + ": " + message);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw Utils.createNatsError("Interrupted while creating the subscriptions");
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        natsMetricsReporter.reportSubscribeTime(System.nanoTime() - startedAt);
+        if (!errors.isEmpty()) {
+            throw Utils.createNatsError("Error while creating the subscriptions of " + errors.size() +
+                                                " service(s): " + String.join("; ", errors));
         }
     }
 
@@ -98,14 +143,27 @@ public class Subscribe {
         String queueName = null;
         Subscription subscription;
         try {
-            if (annotation != null) {
+            ReplayPartitions replayPartitions = messageHandler.getReplayPartitions();
+            if (replayPartitions != null) {
+                // The partitions are ephemeral subscriptions outside of any queue group, which are started at the
+                // beginning of their own partitions regardless of the start position or the checkpoint.
+                subscription = replayPartitions.subscribe(streamingConnection, subject, messageHandler,
+                        start -> newOptionsBuilder(annotation).startAtSequence(start).build());
+            } else if (annotation != null) {
                 if (annotation.containsKey(QUEUE_NAME_ANNOTATION_FIELD)) {
                     queueName = annotation.getStringValue(QUEUE_NAME_ANNOTATION_FIELD).getValue();
                 }
-                SubscriptionOptions subscriptionOptions = buildSubscriptionOptions(annotation);
+                SubscriptionOptions subscriptionOptions = buildSubscriptionOptions(annotation,
+                                                                                   getCheckpoint(messageHandler));
                 subscription = streamingConnection.subscribe(subject, queueName, messageHandler, subscriptionOptions);
             } else {
-               subscription = streamingConnection.subscribe(subject, messageHandler);
+                SubscriptionOptions.Builder builder = new SubscriptionOptions.Builder().manualAcks();
+                long checkpoint = getCheckpoint(messageHandler);
+                if (checkpoint > 0) {
+                    builder.startAtSequence(checkpoint + 1);
+                }
+                SubscriptionOptions subscriptionOptions = builder.build();
+                subscription = streamingConnection.subscribe(subject, messageHandler, subscriptionOptions);
             }
             NatsMetricsReporter.reportSubscription(streamingConnection.getNatsConnection().getConnectedUrl(), subject);
             return subscription;
@@ -118,15 +176,37 @@ public class Subscribe {
         }
     }
 
-    private static SubscriptionOptions buildSubscriptionOptions(BMap<BString, Object> annotation) {
-        SubscriptionOptions.Builder builder = new SubscriptionOptions.Builder();
+    private static long getCheckpoint(StreamingListener messageHandler) {
+        CheckpointStore.Tracker checkpointTracker = messageHandler.getCheckpointTracker();
+        return checkpointTracker == null ? 0 : checkpointTracker.getResumeSequence();
+    }
+
+    static SubscriptionOptions buildSubscriptionOptions(BMap<BString, Object> annotation, long checkpoint) {
+        SubscriptionOptions.Builder builder = newOptionsBuilder(annotation);
         String durableName = null;
-        int maxInFlight = 1024;
-        int ackWait = 30;
-        int subscriptionTimeout = 2;
         if (annotation.containsKey(DURABLE_NAME_ANNOTATION_FIELD)) {
             durableName = annotation.getStringValue(DURABLE_NAME_ANNOTATION_FIELD).getValue();
         }
+
+        Object startPosition = annotation.get(START_POSITION_ANNOTATION_FIELD);
+
+        if (durableName == null && checkpoint > 0) {
+            // Resumes after the last message processed before the listener was restarted. A durable subscription
+            // resumes from the position kept by the server instead.
+            builder.startAtSequence(checkpoint + 1);
+        } else {
+            setStartPositionInBuilder(builder, startPosition);
+        }
+        builder.durableName(durableName);
+        return builder.build();
+    }
+
+    // Sets the options, which do not depend on the position the subscription starts at.
+    private static SubscriptionOptions.Builder newOptionsBuilder(BMap<BString, Object> annotation) {
+        SubscriptionOptions.Builder builder = new SubscriptionOptions.Builder();
+        int maxInFlight = 1024;
+        int ackWait = 30;
+        int subscriptionTimeout = 2;
         if (annotation.containsKey(MAX_IN_FLIGHT_ANNOTATION_FIELD)) {
             maxInFlight = annotation.getIntValue(MAX_IN_FLIGHT_ANNOTATION_FIELD).intValue();
         }
@@ -136,17 +216,12 @@ public class Subscribe {
         if (annotation.containsKey(SUBSCRIPTION_TIMEOUT_ANNOTATION_FIELD)) {
             subscriptionTimeout = (int) ((BDecimal) annotation.get(SUBSCRIPTION_TIMEOUT_ANNOTATION_FIELD)).intValue();
         }
-        boolean manualAck = !annotation.getBooleanValue(MANUAL_ACK_ANNOTATION_FIELD);
-
-        Object startPosition = annotation.get(START_POSITION_ANNOTATION_FIELD);
-
-        setStartPositionInBuilder(builder, startPosition);
-        builder.durableName(durableName).maxInFlight(maxInFlight).ackWait(Duration.ofSeconds(ackWait))
+        builder.maxInFlight(maxInFlight).ackWait(Duration.ofSeconds(ackWait))
                 .subscriptionTimeout(Duration.ofSeconds(subscriptionTimeout));
-        if (manualAck) {
-            builder.manualAcks();
-        }
-        return builder.build();
+        // Messages are dispatched without waiting for the service to process them. Hence, the acknowledgement is
+        // always sent by the `StreamingListener` (or the caller in the manual acknowledgement mode) once processed.
+        builder.manualAcks();
+        return builder;
     }
 
     private static void setStartPositionInBuilder(SubscriptionOptions.Builder builder, Object startPosition) {
@@ -20,9 +20,11 @@ package io.ballerina.stdlib.stan.message;
 import io.ballerina.runtime.api.values.BObject;
 import io.ballerina.stdlib.stan.Constants;
 import io.ballerina.stdlib.stan.Utils;
+import io.ballerina.stdlib.stan.consumer.AckCoalescer;
 import io.nats.streaming.Message;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * Remote function implementation for acknowledging a message from a NATS streaming server.
@@ -31,10 +33,20 @@ public class Ack {
 
     public static Object ack(BObject caller) {
         Message streamingMessage = (Message) caller.getNativeData(Constants.NATS_STREAMING_MSG);
+        @SuppressWarnings("unchecked")
+        List<Message> streamingMessageBatch =
+                (List<Message>) caller.getNativeData(Constants.NATS_STREAMING_MSG_BATCH);
         boolean manualAck = (Boolean) caller.getNativeData(Constants.NATS_STREAMING_MANUAL_ACK.getValue());
         try {
             if (manualAck) {
-                streamingMessage.ack();
+                if (streamingMessageBatch != null) {
+                    // Acknowledges every message delivered to the `onMessages` remote function
+                    for (Message batchMessage : streamingMessageBatch) {
+                        batchMessage.ack();
+                    }
+                } else {
+                    streamingMessage.ack();
+                }
             } else {
                 return Utils.createNatsError("Invalid operation, " +
                         "manual acknowledgement is not supported in auto ACK mode.");
@@ -44,4 +56,22 @@ public class Ack {
             return Utils.createNatsError(e.getMessage());
         }
     }
+
+    public static Object deferAck(BObject caller) {
+        boolean manualAck = (Boolean) caller.getNativeData(Constants.NATS_STREAMING_MANUAL_ACK.getValue());
+        if (!manualAck) {
+            return Utils.createNatsError("Invalid operation, " +
+                    "manual acknowledgement is not supported in auto ACK mode.");
+        }
+        AckCoalescer ackCoalescer = (AckCoalescer) caller.getNativeData(Constants.NATS_STREAMING_ACK_COALESCER);
+        @SuppressWarnings("unchecked")
+        List<Message> streamingMessageBatch =
+                (List<Message>) caller.getNativeData(Constants.NATS_STREAMING_MSG_BATCH);
+        if (streamingMessageBatch != null) {
+            ackCoalescer.defer(streamingMessageBatch);
+        } else {
+            ackCoalescer.defer((Message) caller.getNativeData(Constants.NATS_STREAMING_MSG));
+        }
+        return null;
+    }
 }
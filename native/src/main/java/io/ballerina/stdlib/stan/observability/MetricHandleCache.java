@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.observability;
+
+import io.ballerina.runtime.observability.metrics.Counter;
+import io.ballerina.runtime.observability.metrics.Gauge;
+import io.ballerina.runtime.observability.metrics.MetricId;
+import io.ballerina.runtime.observability.metrics.MetricRegistry;
+import io.ballerina.runtime.observability.metrics.StatisticConfig;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded cache of the resolved metric handles per context, URL, subject and optional extra tag. Once a handle is
+ * resolved, reporting a metric neither creates the observer context and the tag set nor looks up the metric registry.
+ */
+class MetricHandleCache {
+    private final MetricRegistry metricRegistry;
+    private final int maxSize;
+    private final AtomicInteger size = new AtomicInteger();
+    // context -> url -> subject and extra tag -> handles
+    private final Map<String, Map<String, Map<String, MetricHandles>>> handles = new ConcurrentHashMap<>();
+
+    MetricHandleCache(MetricRegistry metricRegistry, int maxSize) {
+        this.metricRegistry = metricRegistry;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the metric handles of the given context, URL and subject, resolving them on the first use.
+     *
+     * @param context Context of the metrics.
+     * @param url     URL of the NATS server.
+     * @param subject Subject of the metrics or `null` if the metrics are not specific to a subject.
+     * @return The metric handles.
+     */
+    MetricHandles get(String context, String url, String subject) {
+        return get(context, url, subject, null, null);
+    }
+
+    /**
+     * Returns the metric handles of the given context, URL and subject which are additionally tagged with the given
+     * tag, resolving them on the first use. The tagged handles count towards the size of the cache as well.
+     *
+     * @param context  Context of the metrics.
+     * @param url      URL of the NATS server.
+     * @param subject  Subject of the metrics or `null` if the metrics are not specific to a subject.
+     * @param tagKey   Key of the extra tag or `null` if the metrics have no extra tag.
+     * @param tagValue Value of the extra tag.
+     * @return The metric handles.
+     */
+    MetricHandles get(String context, String url, String subject, String tagKey, String tagValue) {
+        if (url == null) {
+            url = NatsObservabilityConstants.UNKNOWN;
+        }
+        String subjectKey = subject == null ? "" : subject;
+        String handlesKey = tagKey == null ? subjectKey : subjectKey + '\0' + tagKey + '=' + tagValue;
+        Map<String, Map<String, MetricHandles>> urlHandles = handles.get(context);
+        if (urlHandles == null) {
+            urlHandles = handles.computeIfAbsent(context, key -> new ConcurrentHashMap<>());
+        }
+        Map<String, MetricHandles> subjectHandles = urlHandles.get(url);
+        if (subjectHandles == null) {
+            subjectHandles = urlHandles.computeIfAbsent(url, key -> new ConcurrentHashMap<>());
+        }
+        MetricHandles metricHandles = subjectHandles.get(handlesKey);
+        if (metricHandles == null) {
+            NatsObserverContext observerContext = subject == null ? new NatsObserverContext(context, url) :
+                    new NatsObserverContext(context, url, subject);
+            if (tagKey != null) {
+                observerContext.addTag(tagKey, tagValue);
+            }
+            metricHandles = new MetricHandles(metricRegistry, observerContext);
+            MetricHandles existing = subjectHandles.putIfAbsent(handlesKey, metricHandles);
+            if (existing != null) {
+                return existing;
+            }
+            if (size.incrementAndGet() > maxSize) {
+                evictOne(handlesKey);
+            }
+        }
+        return metricHandles;
+    }
+
+    private void evictOne(String retainedKey) {
+        for (Map<String, Map<String, MetricHandles>> urlHandles : handles.values()) {
+            for (Map<String, MetricHandles> subjectHandles : urlHandles.values()) {
+                Iterator<String> keys = subjectHandles.keySet().iterator();
+                while (keys.hasNext()) {
+                    String key = keys.next();
+                    if (!key.equals(retainedKey) && subjectHandles.remove(key) != null) {
+                        size.decrementAndGet();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Counter and gauge handles of a single context, URL, subject and extra tag, resolved lazily by metric name.
+     */
+    static class MetricHandles {
+        private final MetricRegistry metricRegistry;
+        private final NatsObserverContext observerContext;
+        private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+        private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+        private final Map<String, Gauge> distributions = new ConcurrentHashMap<>();
+
+        MetricHandles(MetricRegistry metricRegistry, NatsObserverContext observerContext) {
+            this.metricRegistry = metricRegistry;
+            this.observerContext = observerContext;
+        }
+
+        Counter counter(String[] metric) {
+            Counter counter = counters.get(metric[0]);
+            if (counter == null) {
+                counter = counters.computeIfAbsent(metric[0], name -> metricRegistry.counter(new MetricId(
+                        NatsObservabilityConstants.CONNECTOR_NAME + "_" + name, metric[1],
+                        observerContext.getAllTags())));
+            }
+            return counter;
+        }
+
+        Gauge gauge(String[] metric) {
+            Gauge gauge = gauges.get(metric[0]);
+            if (gauge == null) {
+                gauge = gauges.computeIfAbsent(metric[0], name -> metricRegistry.gauge(new MetricId(
+                        NatsObservabilityConstants.CONNECTOR_NAME + "_" + name, metric[1],
+                        observerContext.getAllTags())));
+            }
+            return gauge;
+        }
+
+        /**
+         * Returns a gauge which summarizes the recorded values as percentiles and buckets.
+         */
+        Gauge distribution(String[] metric) {
+            Gauge gauge = distributions.get(metric[0]);
+            if (gauge == null) {
+                gauge = distributions.computeIfAbsent(metric[0], name -> metricRegistry.gauge(new MetricId(
+                        NatsObservabilityConstants.CONNECTOR_NAME + "_" + name, metric[1],
+                        observerContext.getAllTags()), StatisticConfig.DEFAULT));
+            }
+            return gauge;
+        }
+    }
+}
@@ -36,10 +36,20 @@ import io.nats.streaming.StreamingConnection;
 public class NatsMetricsReporter {
 
     private static final MetricRegistry metricRegistry = DefaultMetricRegistry.getInstance();
-    private StreamingConnection connection;
+    private static final int METRIC_HANDLE_CACHE_SIZE = 10000;
+    private static final MetricHandleCache metricHandles =
+            new MetricHandleCache(metricRegistry, METRIC_HANDLE_CACHE_SIZE);
+    private final StreamingConnection connection;
+    // Identifies the connection of a pooled client, or null if the client has a single connection
+    private final String shard;
 
     public NatsMetricsReporter(StreamingConnection connection) {
+        this(connection, null);
+    }
+
+    public NatsMetricsReporter(StreamingConnection connection, String shard) {
         this.connection = connection;
+        this.shard = shard;
     }
 
     /**
@@ -87,8 +97,7 @@ public class NatsMetricsReporter {
             return;
         }
         incrementGauge(
-                new NatsObserverContext(NatsObservabilityConstants.CONTEXT_PRODUCER,
-                                        connection.getNatsConnection().getConnectedUrl()),
+                new NatsObserverContext(NatsObservabilityConstants.CONTEXT_PRODUCER, connectedUrl()),
                 NatsObservabilityConstants.METRIC_PUBLISHERS[0],
                 NatsObservabilityConstants.METRIC_PUBLISHERS[1]);
 
@@ -102,13 +111,25 @@ public class NatsMetricsReporter {
             return;
         }
         decrementGauge(
-                new NatsObserverContext(NatsObservabilityConstants.CONTEXT_PRODUCER,
-                                        connection.getNatsConnection().getConnectedUrl()),
+                new NatsObserverContext(NatsObservabilityConstants.CONTEXT_PRODUCER, connectedUrl()),
                 NatsObservabilityConstants.METRIC_PUBLISHERS[0],
                 NatsObservabilityConstants.METRIC_PUBLISHERS[1]);
 
     }
 
+    /**
+     * Reports the time taken by a listener to subscribe all of its services.
+     *
+     * @param elapsedNanos Time in nanoseconds from starting the listener until all the subscriptions were created.
+     */
+    public void reportSubscribeTime(long elapsedNanos) {
+        if (!ObserveUtils.isMetricsEnabled()) {
+            return;
+        }
+        metricHandles.get(NatsObservabilityConstants.CONTEXT_CONSUMER, connectedUrl(), null)
+                .distribution(NatsObservabilityConstants.METRIC_SUBSCRIBE_TIME).setValue(elapsedNanos / 1E9);
+    }
+
     /**
      * Reports a message being published by a NATS producer.
      *
@@ -119,8 +140,9 @@ public class NatsMetricsReporter {
         if (!ObserveUtils.isMetricsEnabled()) {
             return;
         }
-        reportPublish(new NatsObserverContext(NatsObservabilityConstants.CONTEXT_PRODUCER,
-                                              connection.getNatsConnection().getConnectedUrl(), subject), size);
+        MetricHandleCache.MetricHandles handles = producerHandles(subject);
+        handles.counter(NatsObservabilityConstants.METRIC_PUBLISHED).increment();
+        handles.counter(NatsObservabilityConstants.METRIC_PUBLISHED_SIZE).increment(size);
     }
 
 
@@ -133,12 +155,8 @@ public class NatsMetricsReporter {
         if (!ObserveUtils.isMetricsEnabled()) {
             return;
         }
-        incrementCounter(
-                new NatsObserverContext(NatsObservabilityConstants.CONTEXT_PRODUCER,
-                                        url, subject),
-                NatsObservabilityConstants.METRIC_DELIVERED[0],
-                NatsObservabilityConstants.METRIC_DELIVERED[1]);
-
+        metricHandles.get(NatsObservabilityConstants.CONTEXT_PRODUCER, url, subject)
+                .counter(NatsObservabilityConstants.METRIC_DELIVERED).increment();
     }
 
     /**
@@ -182,10 +200,88 @@ public class NatsMetricsReporter {
         if (!ObserveUtils.isMetricsEnabled()) {
             return;
         }
-        incrementCounter(new NatsObserverContext(NatsObservabilityConstants.CONTEXT_PRODUCER,
-                                                 connection.getNatsConnection().getConnectedUrl(), subject),
-                         NatsObservabilityConstants.METRIC_ACK[0],
-                         NatsObservabilityConstants.METRIC_ACK[1]);
+        producerHandles(subject).counter(NatsObservabilityConstants.METRIC_ACK).increment();
+    }
+
+    /**
+     * Reports a published message waiting for its acknowledgement.
+     */
+    public void reportPendingAck() {
+        if (!ObserveUtils.isMetricsEnabled()) {
+            return;
+        }
+        producerHandles(null).gauge(NatsObservabilityConstants.METRIC_PENDING_ACKS).increment();
+    }
+
+    /**
+     * Reports a published message that is no longer waiting for its acknowledgement, either because it got
+     * acknowledged or failed.
+     */
+    public void reportPendingAckCompleted() {
+        if (!ObserveUtils.isMetricsEnabled()) {
+            return;
+        }
+        producerHandles(null).gauge(NatsObservabilityConstants.METRIC_PENDING_ACKS).decrement();
+    }
+
+    /**
+     * Reports the time taken for a published message to get acknowledged.
+     *
+     * @param subject      Subject the message is published to.
+     * @param latencyNanos Time in nanoseconds from publishing the message until the acknowledgement.
+     */
+    public void reportAckLatency(String subject, long latencyNanos) {
+        if (!ObserveUtils.isMetricsEnabled()) {
+            return;
+        }
+        producerHandles(subject).distribution(NatsObservabilityConstants.METRIC_ACK_LATENCY)
+                .setValue(latencyNanos / 1E9);
+    }
+
+    private MetricHandleCache.MetricHandles producerHandles(String subject) {
+        return shard == null ? metricHandles.get(NatsObservabilityConstants.CONTEXT_PRODUCER, connectedUrl(), subject) :
+                metricHandles.get(NatsObservabilityConstants.CONTEXT_PRODUCER, connectedUrl(), subject,
+                                  NatsObservabilityConstants.TAG_SHARD, shard);
+    }
+
+    // Resolved on every report, as the connection moves to another server of the cluster when it reconnects
+    private String connectedUrl() {
+        String url = connection.getNatsConnection().getConnectedUrl();
+        return url == null ? NatsObservabilityConstants.UNKNOWN : url;
+    }
+
+    /**
+     * Reports the time a received message waited before it was dispatched to the service.
+     *
+     * @param url        URL of the NATS server that the listener is connected to.
+     * @param subject    Subject the message is received from.
+     * @param service    Name of the service the message is dispatched to.
+     * @param delayNanos Time in nanoseconds from receiving the message until dispatching it.
+     */
+    public static void reportDispatchDelay(String url, String subject, String service, long delayNanos) {
+        if (!ObserveUtils.isMetricsEnabled()) {
+            return;
+        }
+        metricHandles.get(NatsObservabilityConstants.CONTEXT_CONSUMER, url, subject,
+                          NatsObservabilityConstants.TAG_SERVICE, service)
+                .distribution(NatsObservabilityConstants.METRIC_DISPATCH_DELAY).setValue(delayNanos / 1E9);
+    }
+
+    /**
+     * Reports the time taken by a service to process a dispatched message.
+     *
+     * @param url            URL of the NATS server that the listener is connected to.
+     * @param subject        Subject the message is received from.
+     * @param service        Name of the service the message is dispatched to.
+     * @param executionNanos Time in nanoseconds from dispatching the message until the service returned.
+     */
+    public static void reportExecutionTime(String url, String subject, String service, long executionNanos) {
+        if (!ObserveUtils.isMetricsEnabled()) {
+            return;
+        }
+        metricHandles.get(NatsObservabilityConstants.CONTEXT_CONSUMER, url, subject,
+                          NatsObservabilityConstants.TAG_SERVICE, service)
+                .distribution(NatsObservabilityConstants.METRIC_EXECUTION_TIME).setValue(executionNanos / 1E9);
     }
 
     /**
@@ -198,7 +294,111 @@ public class NatsMetricsReporter {
         if (!ObserveUtils.isMetricsEnabled()) {
             return;
         }
-        reportConsume(new NatsObserverContext(url, subject), size);
+        MetricHandleCache.MetricHandles handles =
+                metricHandles.get(NatsObservabilityConstants.CONTEXT_CONSUMER, url, subject);
+        handles.counter(NatsObservabilityConstants.METRIC_CONSUMED).increment();
+        handles.counter(NatsObservabilityConstants.METRIC_CONSUMED_SIZE).increment(size);
+    }
+
+    /**
+     * Reports the delivery details the server attached to a consumed message.
+     *
+     * @param url            URL of the NATS server that the listener is connected to.
+     * @param subject        Subject the message is received from.
+     * @param sequence       Sequence number of the message in its channel.
+     * @param timestampNanos Time in nanoseconds since the epoch the server stored the message.
+     * @param redelivered    Whether the message was delivered before.
+     */
+    public static void reportDeliveryInfo(String url, String subject, long sequence, long timestampNanos,
+                                          boolean redelivered) {
+        if (!ObserveUtils.isMetricsEnabled()) {
+            return;
+        }
+        MetricHandleCache.MetricHandles handles =
+                metricHandles.get(NatsObservabilityConstants.CONTEXT_CONSUMER, url, subject);
+        // The clocks of the server and the listener may drift apart, which must not show up as a negative lag.
+        long lagNanos = Math.max(System.currentTimeMillis() * 1_000_000L - timestampNanos, 0);
+        handles.distribution(NatsObservabilityConstants.METRIC_CONSUMER_LAG).setValue(lagNanos / 1E9);
+        handles.gauge(NatsObservabilityConstants.METRIC_LAST_SEQUENCE).setValue(sequence);
+        if (redelivered) {
+            handles.counter(NatsObservabilityConstants.METRIC_REDELIVERED).increment();
+        }
+    }
+
+    /**
+     * Reports a redelivered message skipped as it was already processed.
+     *
+     * @param url     URL of the NATS server that the listener is connected to.
+     * @param subject Subject the message is received from.
+     */
+    public static void reportDeduplicated(String url, String subject) {
+        if (!ObserveUtils.isMetricsEnabled()) {
+            return;
+        }
+        metricHandles.get(NatsObservabilityConstants.CONTEXT_CONSUMER, url, subject)
+                .counter(NatsObservabilityConstants.METRIC_DEDUPLICATED).increment();
+    }
+
+    /**
+     * Reports a message acknowledged without being dispatched, as it did not pass the filter of the service.
+     *
+     * @param url     URL of the NATS server that the listener is connected to.
+     * @param subject Subject the message is received from.
+     */
+    public static void reportFiltered(String url, String subject) {
+        if (!ObserveUtils.isMetricsEnabled()) {
+            return;
+        }
+        metricHandles.get(NatsObservabilityConstants.CONTEXT_CONSUMER, url, subject)
+                .counter(NatsObservabilityConstants.METRIC_FILTERED).increment();
+    }
+
+    /**
+     * Reports a message moved to the dead letter subject.
+     *
+     * @param url     URL of the NATS server that the listener is connected to.
+     * @param subject Subject the message is received from.
+     */
+    public static void reportDeadLettered(String url, String subject) {
+        if (!ObserveUtils.isMetricsEnabled()) {
+            return;
+        }
+        metricHandles.get(NatsObservabilityConstants.CONTEXT_CONSUMER, url, subject)
+                .counter(NatsObservabilityConstants.METRIC_DEAD_LETTERED).increment();
+    }
+
+    /**
+     * Reports the circuit breaker of a service opening or closing.
+     *
+     * @param url     URL of the NATS server that the listener is connected to.
+     * @param subject Subject the service is subscribed to.
+     * @param service Name of the service.
+     * @param open    Whether the circuit is open.
+     */
+    public static void reportCircuitBreakerState(String url, String subject, String service, boolean open) {
+        if (!ObserveUtils.isMetricsEnabled()) {
+            return;
+        }
+        metricHandles.get(NatsObservabilityConstants.CONTEXT_CONSUMER, url, subject,
+                          NatsObservabilityConstants.TAG_SERVICE, service)
+                .gauge(NatsObservabilityConstants.METRIC_CIRCUIT_OPEN).setValue(open ? 1 : 0);
+    }
+
+    /**
+     * Reports the concurrency limit adapted to the latency of a service.
+     *
+     * @param url     URL of the NATS connection.
+     * @param subject Subject the service is subscribed to.
+     * @param service Name of the service.
+     * @param limit   Number of messages the service is allowed to process concurrently.
+     */
+    public static void reportConcurrencyLimit(String url, String subject, String service, int limit) {
+        if (!ObserveUtils.isMetricsEnabled()) {
+            return;
+        }
+        metricHandles.get(NatsObservabilityConstants.CONTEXT_CONSUMER, url, subject,
+                          NatsObservabilityConstants.TAG_SERVICE, service)
+                .gauge(NatsObservabilityConstants.METRIC_CONCURRENCY_LIMIT).setValue(limit);
     }
 
     /**
@@ -227,20 +427,6 @@ public class NatsMetricsReporter {
         this.reportError(subject, NatsObservabilityConstants.CONTEXT_CONSUMER, errorType);
     }
 
-    private static void reportPublish(NatsObserverContext observerContext, int size) {
-        incrementCounter(observerContext, NatsObservabilityConstants.METRIC_PUBLISHED[0],
-                         NatsObservabilityConstants.METRIC_PUBLISHED[1]);
-        incrementCounter(observerContext, NatsObservabilityConstants.METRIC_PUBLISHED_SIZE[0],
-                         NatsObservabilityConstants.METRIC_PUBLISHED_SIZE[1], size);
-    }
-
-    private static void reportConsume(NatsObserverContext observerContext, int size) {
-        incrementCounter(observerContext, NatsObservabilityConstants.METRIC_CONSUMED[0],
-                         NatsObservabilityConstants.METRIC_CONSUMED[1]);
-        incrementCounter(observerContext, NatsObservabilityConstants.METRIC_CONSUMED_SIZE[0],
-                         NatsObservabilityConstants.METRIC_CONSUMED_SIZE[1], size);
-    }
-
     public static void reportError(String context, String errorType) {
         NatsObserverContext observerContext = new NatsObserverContext(context);
         observerContext.addTag(NatsObservabilityConstants.TAG_ERROR_TYPE, errorType);
@@ -250,7 +436,7 @@ public class NatsMetricsReporter {
 
     public void reportError(String subject, String context, String errorType) {
         NatsObserverContext observerContext =
-                new NatsObserverContext(context, connection.getNatsConnection().getConnectedUrl(), subject);
+                new NatsObserverContext(context, connectedUrl(), subject);
         observerContext.addTag(NatsObservabilityConstants.TAG_ERROR_TYPE, errorType);
         incrementCounter(observerContext, NatsObservabilityConstants.METRIC_ERRORS[0],
                          NatsObservabilityConstants.METRIC_ERRORS[1]);
@@ -268,27 +454,18 @@ public class NatsMetricsReporter {
     }
 
     private static void incrementCounter(NatsObserverContext observerContext, String name, String desc, int amount) {
-        if (metricRegistry == null) {
-            return;
-        }
         metricRegistry.counter(new MetricId(
                 NatsObservabilityConstants.CONNECTOR_NAME + "_" + name, desc, observerContext.getAllTags()))
                 .increment(amount);
     }
 
     private static void incrementGauge(NatsObserverContext observerContext, String name, String desc) {
-        if (metricRegistry == null) {
-            return;
-        }
         metricRegistry.gauge(new MetricId(
                 NatsObservabilityConstants.CONNECTOR_NAME + "_" + name, desc, observerContext.getAllTags()))
                 .increment();
     }
 
     private static void decrementGauge(NatsObserverContext observerContext, String name, String desc) {
-        if (metricRegistry == null) {
-            return;
-        }
         metricRegistry.gauge(new MetricId(
                 NatsObservabilityConstants.CONNECTOR_NAME + "_" + name, desc, observerContext.getAllTags()))
                 .decrement();
@@ -37,9 +37,36 @@ public class NatsObservabilityConstants {
     static final String[] METRIC_DELIVERED = {"delivered", "Number of messages successfully received by consumer"};
     static final String[] METRIC_CONSUMED_SIZE = {"consumed_size", "Total size in bytes of messages consumed"};
     static final String[] METRIC_ACK = {"acknowledgements", "Total number of acknowledgements received"};
+    static final String[] METRIC_ACK_LATENCY = {"ack_latency_seconds",
+            "Time taken for a published message to get acknowledged by the server"};
+    static final String[] METRIC_PENDING_ACKS = {"pending_acks",
+            "Number of published messages waiting for an acknowledgement"};
+    static final String[] METRIC_DISPATCH_DELAY = {"dispatch_delay_seconds",
+            "Time a received message waited before it was dispatched to the service"};
+    static final String[] METRIC_EXECUTION_TIME = {"execution_time_seconds",
+            "Time taken by the service to process a dispatched message"};
+    static final String[] METRIC_CONSUMER_LAG = {"consumer_lag_seconds",
+            "Time from the server storing a message until the listener received it"};
+    static final String[] METRIC_LAST_SEQUENCE = {"last_sequence",
+            "Sequence number of the last message received"};
+    static final String[] METRIC_REDELIVERED = {"redelivered", "Number of messages redelivered by the server"};
+    static final String[] METRIC_DEDUPLICATED = {"deduplicated",
+            "Number of redelivered messages skipped as they were already processed"};
+    static final String[] METRIC_DEAD_LETTERED = {"dead_lettered",
+            "Number of messages moved to the dead letter subject after too many redeliveries"};
+    static final String[] METRIC_SUBSCRIBE_TIME = {"subscribe_time_seconds",
+            "Time taken by a listener to subscribe all of its services when started"};
+    static final String[] METRIC_CIRCUIT_OPEN = {"circuit_open",
+            "Whether the circuit breaker of the service is open and holds back the received messages"};
+    static final String[] METRIC_FILTERED = {"filtered",
+            "Number of messages acknowledged without being dispatched, as they did not pass the filter of the service"};
+    static final String[] METRIC_CONCURRENCY_LIMIT = {"concurrency_limit",
+            "Number of messages the service is currently allowed to process concurrently"};
 
     static final String TAG_URL = "url";
     static final String TAG_SUBJECT = "subject";
+    static final String TAG_SERVICE = "service";
+    static final String TAG_SHARD = "shard";
     static final String TAG_ERROR_TYPE = "error_type";
     static final String TAG_CONTEXT = "context";
 
@@ -52,6 +79,9 @@ public class NatsObservabilityConstants {
     public static final String ERROR_TYPE_EXCEPTION = "exception";
     public static final String ERROR_TYPE_SLOW_CONSUMER = "slow_consumer";
     public static final String ERROR_TYPE_ON_ERROR = "on_error";
+    public static final String ERROR_TYPE_OUTBOX = "outbox";
+    public static final String ERROR_TYPE_CHECKPOINT = "checkpoint";
+    public static final String ERROR_TYPE_DEAD_LETTER = "dead_letter";
 
     public static final String CONTEXT_CONNECTION = "connection";
     public static final String CONTEXT_PRODUCER = "producer";
@@ -30,13 +30,32 @@ import io.nats.streaming.AckHandler;
  */
 public class AckListener implements AckHandler {
     private final Future balFuture;
+    private final PublishBatch batch;
+    private final int batchIndex;
     private final String subject;
     private final NatsMetricsReporter natsMetricsReporter;
+    private final PublishOutbox outbox;
+    // Taken right before the message is handed over to the connection, so the measured latency also covers the
+    // time spent waiting for a free slot when `maxPubAcksInFlight` is reached.
+    private final long publishedAt = System.nanoTime();
 
-    AckListener(Future balFuture, String subject, NatsMetricsReporter natsMetricsReporter) {
+    AckListener(Future balFuture, String subject, NatsMetricsReporter natsMetricsReporter, PublishOutbox outbox) {
         this.balFuture = balFuture;
+        this.batch = null;
+        this.batchIndex = -1;
         this.subject = subject;
         this.natsMetricsReporter = natsMetricsReporter;
+        this.outbox = outbox;
+    }
+
+    AckListener(PublishBatch batch, int batchIndex, String subject, NatsMetricsReporter natsMetricsReporter,
+                PublishOutbox outbox) {
+        this.balFuture = null;
+        this.batch = batch;
+        this.batchIndex = batchIndex;
+        this.subject = subject;
+        this.natsMetricsReporter = natsMetricsReporter;
+        this.outbox = outbox;
     }
 
     /**
@@ -44,13 +63,26 @@ public class AckListener implements AckHandler {
      */
     @Override
     public void onAck(String nuid, Exception ex) {
+        natsMetricsReporter.reportPendingAckCompleted();
+        if (outbox != null) {
+            outbox.onAck();
+        }
         if (ex == null) {
+            natsMetricsReporter.reportAckLatency(subject, System.nanoTime() - publishedAt);
             natsMetricsReporter.reportAcknowledgement(subject);
-            balFuture.complete(StringUtils.fromString(nuid));
+            complete(StringUtils.fromString(nuid));
         } else {
             natsMetricsReporter.reportProducerError(subject, NatsObservabilityConstants.ERROR_TYPE_ACKNOWLEDGEMENT);
             BError error = Utils.createNatsError("NUID: " + nuid + "; " + ex.getMessage());
-            balFuture.complete(error);
+            complete(error);
+        }
+    }
+
+    private void complete(Object result) {
+        if (batch != null) {
+            batch.complete(batchIndex, result);
+        } else {
+            balFuture.complete(result);
         }
     }
 }
@@ -19,10 +19,19 @@
 package io.ballerina.stdlib.stan.producer;
 
 import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.values.BError;
 import io.ballerina.runtime.api.values.BObject;
 import io.ballerina.stdlib.stan.Constants;
+import io.ballerina.stdlib.stan.Utils;
 import io.ballerina.stdlib.stan.connection.NatsStreamingConnection;
+import io.ballerina.stdlib.stan.consumer.PullSubscription;
 import io.ballerina.stdlib.stan.observability.NatsMetricsReporter;
+import io.ballerina.stdlib.stan.observability.NatsObservabilityConstants;
+import io.nats.streaming.StreamingConnection;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Close NATS producer using the connection.
@@ -33,6 +42,39 @@ public class Close {
 
     public static Object close(Environment environment, BObject streamingClientObject) {
         ((NatsMetricsReporter) streamingClientObject.getNativeData(Constants.NATS_METRIC_UTIL)).reportProducerClose();
-        return NatsStreamingConnection.closeConnection(environment, streamingClientObject);
+        // Ends the streams of the client, so that their pending `next` calls return.
+        @SuppressWarnings("unchecked")
+        Set<PullSubscription> pullSubscriptions = (Set<PullSubscription>) streamingClientObject
+                .getNativeData(Constants.NATS_STREAMING_PULL_SUBSCRIPTIONS);
+        for (PullSubscription pullSubscription : pullSubscriptions) {
+            pullSubscription.close();
+        }
+        PublishOutbox outbox = (PublishOutbox) streamingClientObject.getNativeData(Constants.NATS_STREAMING_OUTBOX);
+        if (outbox != null) {
+            try {
+                outbox.close();
+            } catch (IOException e) {
+                return Utils.createNatsError("Error while closing the outbox: " + e.getMessage());
+            }
+        }
+        // The first connection of a pooled client is the one closed below, as for a client with a single connection.
+        PublisherPool pool =
+                (PublisherPool) streamingClientObject.getNativeData(Constants.NATS_STREAMING_PUBLISHER_POOL);
+        BError error = null;
+        for (int i = 1; i < pool.size(); i++) {
+            StreamingConnection connection = pool.getConnection(i);
+            String url = connection.getNatsConnection().getConnectedUrl();
+            try {
+                connection.close();
+                NatsMetricsReporter.reportConnectionClose(url);
+            } catch (IOException | TimeoutException | InterruptedException e) {
+                NatsMetricsReporter.reportStreamingError(url, NatsObservabilityConstants.UNKNOWN,
+                                                         NatsObservabilityConstants.CONTEXT_STREAMING_CONNNECTION,
+                                                         NatsObservabilityConstants.ERROR_TYPE_CLOSE);
+                error = Utils.createNatsError(e.getMessage());
+            }
+        }
+        Object result = NatsStreamingConnection.closeConnection(environment, streamingClientObject);
+        return result == null ? error : result;
     }
 }
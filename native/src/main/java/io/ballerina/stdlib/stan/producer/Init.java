@@ -18,42 +18,123 @@
 
 package io.ballerina.stdlib.stan.producer;
 
+import io.ballerina.runtime.api.utils.StringUtils;
 import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BObject;
 import io.ballerina.runtime.api.values.BString;
 import io.ballerina.stdlib.stan.Constants;
 import io.ballerina.stdlib.stan.Utils;
+import io.ballerina.stdlib.stan.codec.PayloadCompression;
 import io.ballerina.stdlib.stan.connection.NatsStreamingConnection;
 import io.ballerina.stdlib.stan.observability.NatsMetricsReporter;
 import io.ballerina.stdlib.stan.observability.NatsObservabilityConstants;
 import io.nats.streaming.StreamingConnection;
 
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
 /**
  * Initialize NATS producer using the connection.
  *
  * @since 1.1.0
  */
 public class Init {
+    private static final BString OUTBOX_CONFIG = StringUtils.fromString("outbox");
+    private static final BString MAX_PUB_ACKS_IN_FLIGHT = StringUtils.fromString("maxPubAcksInFlight");
+    private static final BString CONNECTION_POOL_SIZE = StringUtils.fromString("connectionPoolSize");
 
     public static Object streamingClientInit(BObject streamingClientObject, Object url,
                                                BMap<BString, Object> streamingConfig) {
+        PayloadCompression compression = null;
+        if (streamingConfig.containsKey(Constants.COMPRESSION_CONFIG)) {
+            @SuppressWarnings("unchecked")
+            BMap<BString, Object> compressionConfig =
+                    (BMap<BString, Object>) streamingConfig.getMapValue(Constants.COMPRESSION_CONFIG);
+            try {
+                compression = PayloadCompression.create(compressionConfig);
+            } catch (IllegalArgumentException e) {
+                return Utils.createNatsError(e.getMessage());
+            }
+        }
+        long poolSize = streamingConfig.getIntValue(CONNECTION_POOL_SIZE);
+        if (poolSize < 1) {
+            return Utils.createNatsError("Invalid connection pool size: " + poolSize);
+        }
         BString clusterId = streamingConfig.getStringValue(Constants.CLUSTER_ID);
         Object clientIdNillable = streamingConfig.get(Constants.CLIENT_ID);
-        StreamingConnection connection;
+        if (clientIdNillable == null && poolSize > 1) {
+            clientIdNillable = StringUtils.fromString(UUID.randomUUID().toString());
+        }
+        StreamingConnection[] connections = new StreamingConnection[(int) poolSize];
+        NatsMetricsReporter[] reporters = new NatsMetricsReporter[connections.length];
         try {
-            connection = NatsStreamingConnection.createConnection(streamingClientObject, url,
-                                                                  clusterId.getValue(), clientIdNillable,
-                                                                  streamingConfig);
+            for (int i = 0; i < connections.length; i++) {
+                connections[i] = NatsStreamingConnection.createConnection(
+                        streamingClientObject, url, clusterId.getValue(),
+                        getShardClientId(clientIdNillable, i, connections.length), streamingConfig);
+                reporters[i] = connections.length == 1 ? new NatsMetricsReporter(connections[i]) :
+                        new NatsMetricsReporter(connections[i], String.valueOf(i));
+            }
         } catch (Exception e) {
             NatsMetricsReporter.reportError(NatsObservabilityConstants.CONTEXT_STREAMING_CONNNECTION,
                                             NatsObservabilityConstants.ERROR_TYPE_CONNECTION);
+            closeQuietly(connections);
             return Utils.createNatsError("Internal error while creating streaming connection " +
                                                  e.getMessage());
         }
+        StreamingConnection connection = connections[0];
         streamingClientObject.addNativeData(Constants.NATS_STREAMING_CONNECTION, connection);
-        NatsMetricsReporter natsMetricsReporter = new NatsMetricsReporter(connection);
+        NatsMetricsReporter natsMetricsReporter = reporters[0];
         streamingClientObject.addNativeData(Constants.NATS_METRIC_UTIL, natsMetricsReporter);
+        PublisherPool pool = new PublisherPool(connections, reporters);
+        streamingClientObject.addNativeData(Constants.NATS_STREAMING_PUBLISHER_POOL, pool);
+        if (compression != null) {
+            streamingClientObject.addNativeData(Constants.NATS_STREAMING_COMPRESSION, compression);
+        }
+        streamingClientObject.addNativeData(Constants.NATS_STREAMING_PULL_SUBSCRIPTIONS,
+                                            ConcurrentHashMap.newKeySet());
+        if (streamingConfig.containsKey(OUTBOX_CONFIG)) {
+            @SuppressWarnings("unchecked")
+            BMap<BString, Object> outboxConfig = (BMap<BString, Object>) streamingConfig.getMapValue(OUTBOX_CONFIG);
+            try {
+                int maxPubAcksInFlight = streamingConfig.getIntValue(MAX_PUB_ACKS_IN_FLIGHT).intValue();
+                PublishOutbox outbox = PublishOutbox.open(pool, outboxConfig, maxPubAcksInFlight * connections.length);
+                streamingClientObject.addNativeData(Constants.NATS_STREAMING_OUTBOX, outbox);
+            } catch (IOException | IllegalArgumentException e) {
+                NatsMetricsReporter.reportError(NatsObservabilityConstants.CONTEXT_STREAMING_CONNNECTION,
+                                                NatsObservabilityConstants.ERROR_TYPE_OUTBOX);
+                closeQuietly(connections);
+                return Utils.createNatsError("Error while opening the outbox: " + e.getMessage());
+            }
+        }
         natsMetricsReporter.reportNewProducer();
         return null;
     }
+
+    // A pooled client suffixes the client ID with the index of the connection, as each connection needs its own.
+    private static Object getShardClientId(Object clientId, int shard, int poolSize) {
+        if (poolSize == 1) {
+            return clientId;
+        }
+        return StringUtils.fromString(((BString) clientId).getValue() + "-" + shard);
+    }
+
+    private static void closeQuietly(StreamingConnection[] connections) {
+        for (StreamingConnection connection : connections) {
+            if (connection == null) {
+                continue;
+            }
+            try {
+                connection.close();
+            } catch (IOException | TimeoutException | InterruptedException e) {
+                NatsMetricsReporter.reportError(NatsObservabilityConstants.CONTEXT_STREAMING_CONNNECTION,
+                                                NatsObservabilityConstants.ERROR_TYPE_CLOSE);
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
 }
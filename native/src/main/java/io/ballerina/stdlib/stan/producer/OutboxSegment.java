@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.producer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A fixed size, memory-mapped file holding a contiguous range of the messages spooled by a {@link PublishOutbox}.
+ * <p>
+ * A record is laid out as {@code [int length][byte state][short subject length][subject][data]}, where the length
+ * covers everything after itself. The length is written last, so a record torn by a crash is ignored on recovery.
+ * A zero length marks the end of the written records.
+ * <p>
+ * Instances are not thread safe and are guarded by the owning outbox.
+ */
+final class OutboxSegment {
+    static final String FILE_SUFFIX = ".seg";
+
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES + Byte.BYTES + Short.BYTES;
+    private static final byte STATE_PENDING = 0;
+    private static final byte STATE_ACKED = 1;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+    private int readPosition;
+    private int pending;
+    private boolean sealed;
+    private boolean dirty;
+
+    private OutboxSegment(Path path, FileChannel channel, int size) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    static OutboxSegment create(Path directory, long id, int size) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", id, FILE_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                                               StandardOpenOption.WRITE);
+        try {
+            return new OutboxSegment(path, channel, size);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an existing segment and recovers the records which are not acknowledged yet.
+     */
+    static OutboxSegment open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        OutboxSegment segment;
+        try {
+            segment = new OutboxSegment(path, channel, (int) channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        MappedByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (position + RECORD_HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + Integer.BYTES + length > buffer.capacity()) {
+                break;
+            }
+            if (buffer.get(position + Integer.BYTES) == STATE_PENDING) {
+                segment.pending++;
+            }
+            position += Integer.BYTES + length;
+        }
+        segment.writePosition = position;
+        return segment;
+    }
+
+    static int recordSize(int subjectLength, int dataLength) {
+        return RECORD_HEADER_SIZE + subjectLength + dataLength;
+    }
+
+    /**
+     * Appends a record if it fits in the remaining space of the segment.
+     *
+     * @return true if the record is appended or else false if the segment is full
+     */
+    boolean append(byte[] subject, byte[] data) {
+        int size = recordSize(subject.length, data.length);
+        // Keeps room for the zero length which terminates the records.
+        if (sealed || writePosition + size + Integer.BYTES > buffer.capacity()) {
+            return false;
+        }
+        ByteBuffer record = buffer.duplicate();
+        record.position(writePosition + Integer.BYTES);
+        record.put(STATE_PENDING);
+        record.putShort((short) subject.length);
+        record.put(subject);
+        record.put(data);
+        buffer.putInt(writePosition, size - Integer.BYTES);
+        writePosition += size;
+        pending++;
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * Reads the next record which is neither acknowledged nor handed over already.
+     *
+     * @return The record or null if all the written records are handed over
+     */
+    SpooledMessage next() {
+        while (readPosition < writePosition) {
+            int position = readPosition;
+            int length = buffer.getInt(position);
+            readPosition += Integer.BYTES + length;
+            if (buffer.get(position + Integer.BYTES) != STATE_PENDING) {
+                continue;
+            }
+            ByteBuffer record = buffer.duplicate();
+            record.position(position + Integer.BYTES + Byte.BYTES);
+            byte[] subject = new byte[record.getShort()];
+            record.get(subject);
+            byte[] data = new byte[length - Byte.BYTES - Short.BYTES - subject.length];
+            record.get(data);
+            return new SpooledMessage(this, position, new String(subject, StandardCharsets.UTF_8), data);
+        }
+        return null;
+    }
+
+    boolean hasUnread() {
+        return readPosition < writePosition;
+    }
+
+    /**
+     * Marks the record at the given position as acknowledged.
+     *
+     * @return true if the record was pending or else false if it is already acknowledged
+     */
+    boolean acknowledge(int position) {
+        if (buffer.get(position + Integer.BYTES) != STATE_PENDING) {
+            return false;
+        }
+        buffer.put(position + Integer.BYTES, STATE_ACKED);
+        pending--;
+        dirty = true;
+        return true;
+    }
+
+    void seal() {
+        sealed = true;
+    }
+
+    /**
+     * Checks whether the segment no longer holds a pending record and no more records are appended to it.
+     */
+    boolean isReclaimable() {
+        return sealed && pending == 0;
+    }
+
+    int getPending() {
+        return pending;
+    }
+
+    void force() {
+        if (dirty) {
+            buffer.force();
+            dirty = false;
+        }
+    }
+
+    void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+
+    /**
+     * A message read from a segment, along with its location so that it can be acknowledged.
+     */
+    static final class SpooledMessage {
+        private final OutboxSegment segment;
+        private final int position;
+        private final String subject;
+        private final byte[] data;
+
+        private SpooledMessage(OutboxSegment segment, int position, String subject, byte[] data) {
+            this.segment = segment;
+            this.position = position;
+            this.subject = subject;
+            this.data = data;
+        }
+
+        OutboxSegment getSegment() {
+            return segment;
+        }
+
+        int getPosition() {
+            return position;
+        }
+
+        String getSubject() {
+            return subject;
+        }
+
+        byte[] getData() {
+            return data;
+        }
+    }
+}
@@ -26,6 +26,7 @@ import io.ballerina.runtime.api.values.BObject;
 import io.ballerina.runtime.api.values.BString;
 import io.ballerina.stdlib.stan.Constants;
 import io.ballerina.stdlib.stan.Utils;
+import io.ballerina.stdlib.stan.codec.PayloadCompression;
 import io.ballerina.stdlib.stan.observability.NatsMetricsReporter;
 import io.ballerina.stdlib.stan.observability.NatsObservabilityConstants;
 import io.ballerina.stdlib.stan.observability.NatsTracingUtil;
@@ -44,23 +45,104 @@ public class Publish {
     public static Object publishMessage(Environment env, BObject publisher, BMap<BString, Object> message) {
         BString subject = message.getStringValue(StringUtils.fromString(SUBJECT));
         BArray data = message.getArrayValue(StringUtils.fromString(CONTENT));
-        StreamingConnection streamingConnection = (StreamingConnection) publisher
-                .getNativeData(Constants.NATS_STREAMING_CONNECTION);
-        NatsMetricsReporter natsMetricsReporter =
-                (NatsMetricsReporter) publisher.getNativeData(Constants.NATS_METRIC_UTIL);
+        PublisherPool pool = (PublisherPool) publisher.getNativeData(Constants.NATS_STREAMING_PUBLISHER_POOL);
+        int shard = pool.shardOf(subject.getValue());
+        StreamingConnection streamingConnection = pool.getConnection(shard);
+        NatsMetricsReporter natsMetricsReporter = pool.getReporter(shard);
         NatsTracingUtil.traceResourceInvocation(env,
                                                 streamingConnection.getNatsConnection().getConnectedUrl(),
                                                 subject.getValue());
-        byte[] byteData = Utils.convertDataIntoByteArray(data);
+        PayloadCompression compression =
+                (PayloadCompression) publisher.getNativeData(Constants.NATS_STREAMING_COMPRESSION);
+        byte[] byteData = compress(compression, Utils.convertDataIntoByteArray(data));
+        PublishOutbox outbox = (PublishOutbox) publisher.getNativeData(Constants.NATS_STREAMING_OUTBOX);
+        if (outbox != null && outbox.shouldSpool(shard)) {
+            return spool(outbox, natsMetricsReporter, subject.getValue(), byteData);
+        }
+        Future balFuture = env.markAsync();
         try {
-            Future balFuture = env.markAsync();
-            AckListener ackListener = new AckListener(balFuture, subject.getValue(), natsMetricsReporter);
+            AckListener ackListener = new AckListener(balFuture, subject.getValue(), natsMetricsReporter, outbox);
             natsMetricsReporter.reportPublish(subject.getValue(), byteData.length);
+            natsMetricsReporter.reportPendingAck();
+            if (outbox != null) {
+                outbox.onPublish();
+            }
             return StringUtils.fromString(streamingConnection.publish(subject.getValue(), byteData, ackListener));
-        } catch (InterruptedException | IOException | TimeoutException e) {
+        } catch (InterruptedException | IOException | TimeoutException | IllegalStateException e) {
+            natsMetricsReporter.reportPendingAckCompleted();
             natsMetricsReporter.reportProducerError(subject.getValue(), NatsObservabilityConstants.ERROR_TYPE_PUBLISH);
-            return Utils.createNatsError("Failed to publish due to an internal error: "
-                    + e.getMessage());
+            if (outbox != null) {
+                outbox.onAck();
+                balFuture.complete(spool(outbox, natsMetricsReporter, subject.getValue(), byteData));
+            } else {
+                balFuture.complete(Utils.createNatsError("Failed to publish due to an internal error: "
+                        + e.getMessage()));
+            }
+            return null;
+        }
+    }
+
+    public static Object publishMessages(Environment env, BObject publisher, BArray messages) {
+        PublisherPool pool = (PublisherPool) publisher.getNativeData(Constants.NATS_STREAMING_PUBLISHER_POOL);
+        NatsTracingUtil.traceResourceInvocation(env, pool.getConnection(0).getNatsConnection().getConnectedUrl());
+        BString subjectField = StringUtils.fromString(SUBJECT);
+        BString contentField = StringUtils.fromString(CONTENT);
+        int size = messages.size();
+        // A single suspension for the whole batch. The acknowledgements are gathered by the batch as they arrive,
+        // so the number of messages on the wire is only bounded by `maxPubAcksInFlight`.
+        PublishOutbox outbox = (PublishOutbox) publisher.getNativeData(Constants.NATS_STREAMING_OUTBOX);
+        PayloadCompression compression =
+                (PayloadCompression) publisher.getNativeData(Constants.NATS_STREAMING_COMPRESSION);
+        PublishBatch batch = new PublishBatch(env.markAsync(), size);
+        for (int i = 0; i < size; i++) {
+            @SuppressWarnings("unchecked")
+            BMap<BString, Object> message = (BMap<BString, Object>) messages.getRefValue(i);
+            String subject = message.getStringValue(subjectField).getValue();
+            int shard = pool.shardOf(subject);
+            StreamingConnection streamingConnection = pool.getConnection(shard);
+            NatsMetricsReporter natsMetricsReporter = pool.getReporter(shard);
+            byte[] byteData = compress(compression,
+                                       Utils.convertDataIntoByteArray(message.getArrayValue(contentField)));
+            if (outbox != null && outbox.shouldSpool(shard)) {
+                batch.complete(i, spool(outbox, natsMetricsReporter, subject, byteData));
+                continue;
+            }
+            try {
+                AckListener ackListener = new AckListener(batch, i, subject, natsMetricsReporter, outbox);
+                natsMetricsReporter.reportPublish(subject, byteData.length);
+                natsMetricsReporter.reportPendingAck();
+                if (outbox != null) {
+                    outbox.onPublish();
+                }
+                streamingConnection.publish(subject, byteData, ackListener);
+            } catch (InterruptedException | IOException | TimeoutException | IllegalStateException e) {
+                natsMetricsReporter.reportPendingAckCompleted();
+                natsMetricsReporter.reportProducerError(subject, NatsObservabilityConstants.ERROR_TYPE_PUBLISH);
+                if (outbox != null) {
+                    outbox.onAck();
+                    batch.complete(i, spool(outbox, natsMetricsReporter, subject, byteData));
+                } else {
+                    batch.complete(i, Utils.createNatsError("Failed to publish due to an internal error: "
+                            + e.getMessage()));
+                }
+            }
+        }
+        return null;
+    }
+
+    private static byte[] compress(PayloadCompression compression, byte[] data) {
+        return compression == null ? data : compression.compress(data);
+    }
+
+    // Appends the message to the outbox instead of publishing it. The drainer of the outbox publishes it once the
+    // connection can take it.
+    private static Object spool(PublishOutbox outbox, NatsMetricsReporter natsMetricsReporter, String subject,
+                                byte[] data) {
+        try {
+            return StringUtils.fromString(outbox.append(subject, data));
+        } catch (IOException e) {
+            natsMetricsReporter.reportProducerError(subject, NatsObservabilityConstants.ERROR_TYPE_OUTBOX);
+            return Utils.createNatsError("Failed to spool the message to the outbox: " + e.getMessage());
         }
     }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.producer;
+
+import io.ballerina.runtime.api.Future;
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.ArrayType;
+import io.ballerina.runtime.api.utils.TypeUtils;
+import io.ballerina.stdlib.stan.Utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects the acknowledgement results of a batch of published messages and completes the Ballerina future
+ * once every message in the batch has been either acknowledged or failed.
+ */
+class PublishBatch {
+    // The results are typed `(string|stan:Error)[]`. The distinct `stan:Error` type is taken from an error value, as
+    // creating an error type by name would not carry its type ids.
+    private static final ArrayType RESULT_ARRAY_TYPE = TypeCreator.createArrayType(
+            TypeCreator.createUnionType(PredefinedTypes.TYPE_STRING,
+                                        TypeUtils.getType(Utils.createNatsError("Publish failed"))));
+
+    private final Future balFuture;
+    private final Object[] results;
+    private final AtomicInteger pending;
+
+    PublishBatch(Future balFuture, int size) {
+        this.balFuture = balFuture;
+        this.results = new Object[size];
+        this.pending = new AtomicInteger(size);
+        if (size == 0) {
+            balFuture.complete(ValueCreator.createArrayValue(results, RESULT_ARRAY_TYPE));
+        }
+    }
+
+    /**
+     * Records the result of the message at the given index of the batch.
+     *
+     * @param index  Index of the message within the batch.
+     * @param result NUID of the acknowledged message or the error that occurred.
+     */
+    void complete(int index, Object result) {
+        results[index] = result;
+        if (pending.decrementAndGet() == 0) {
+            balFuture.complete(ValueCreator.createArrayValue(results, RESULT_ARRAY_TYPE));
+        }
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.producer;
+
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.stdlib.stan.observability.NatsMetricsReporter;
+import io.ballerina.stdlib.stan.observability.NatsObservabilityConstants;
+import io.nats.client.Connection;
+import io.nats.client.NUID;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Local disk spool of a producer. Messages are appended to memory-mapped segment files while the connection is
+ * down or the acknowledgements in flight are saturated, and a background drainer publishes them once the
+ * connection can take them. A segment is deleted once all of its messages are acknowledged.
+ * <p>
+ * Delivery is at least once. Messages in flight when the client is closed, or whose acknowledgement fails, are
+ * published again. Each message is drained through the connection of the pool its subject is assigned to, like the
+ * messages published directly.
+ */
+public class PublishOutbox {
+    private static final BString DIRECTORY = StringUtils.fromString("directory");
+    private static final BString SEGMENT_SIZE = StringUtils.fromString("segmentSize");
+    private static final BString FSYNC = StringUtils.fromString("fsync");
+    private static final BString FSYNC_INTERVAL = StringUtils.fromString("fsyncInterval");
+    private static final BString MAX_DISK_USAGE = StringUtils.fromString("maxDiskUsage");
+    private static final long RETRY_INTERVAL_MILLIS = 100;
+    private static final long CLOSE_TIMEOUT_MILLIS = 1000;
+
+    private final PublisherPool pool;
+    private final Path directory;
+    private final int segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final long maxDiskUsage;
+    private final int maxPubAcksInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Messages appended but not acknowledged yet. Direct publishing resumes only once the spool is empty, so that
+    // a message is never published ahead of the messages spooled before it.
+    private final AtomicInteger spooled = new AtomicInteger();
+    private final Deque<OutboxSegment.SpooledMessage> retries = new ConcurrentLinkedDeque<>();
+    private final Deque<OutboxSegment> segments = new ArrayDeque<>();
+    private final Thread drainer;
+    private long nextSegmentId;
+    private long lastForce = System.nanoTime();
+    private volatile boolean running = true;
+
+    private PublishOutbox(PublisherPool pool, Path directory, int segmentSize, FsyncPolicy fsyncPolicy,
+                          long fsyncIntervalNanos, long maxDiskUsage, int maxPubAcksInFlight) {
+        this.pool = pool;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = fsyncIntervalNanos;
+        this.maxDiskUsage = maxDiskUsage;
+        this.maxPubAcksInFlight = Math.max(maxPubAcksInFlight, 1);
+        this.drainer = new Thread(this::drain, "stan-outbox-drainer");
+        this.drainer.setDaemon(true);
+    }
+
+    /**
+     * Opens the outbox described by the given configuration, recovers the messages left in it by a previous run
+     * and starts draining them.
+     *
+     * @param pool                Connections the spooled messages are published through.
+     * @param outboxConfig        The `stan:OutboxConfiguration` record.
+     * @param maxPubAcksInFlight  Maximum number of acknowledgements allowed in flight on the connection.
+     * @return The outbox.
+     * @throws IOException If the outbox directory or its segments cannot be opened.
+     */
+    static PublishOutbox open(PublisherPool pool, BMap<BString, Object> outboxConfig, int maxPubAcksInFlight)
+            throws IOException {
+        Path directory = Paths.get(outboxConfig.getStringValue(DIRECTORY).getValue());
+        long segmentSize = outboxConfig.getIntValue(SEGMENT_SIZE);
+        if (segmentSize <= 0 || segmentSize > Integer.MAX_VALUE) {
+            throw new IOException("Invalid outbox segment size: " + segmentSize);
+        }
+        FsyncPolicy fsyncPolicy = FsyncPolicy.valueOf(outboxConfig.getStringValue(FSYNC).getValue());
+        long fsyncIntervalNanos = (long) (((BDecimal) outboxConfig.get(FSYNC_INTERVAL)).floatValue() * 1E9);
+        PublishOutbox outbox = new PublishOutbox(pool, directory, (int) segmentSize,
+                                                 fsyncPolicy, fsyncIntervalNanos,
+                                                 outboxConfig.getIntValue(MAX_DISK_USAGE), maxPubAcksInFlight);
+        outbox.recover();
+        outbox.drainer.start();
+        return outbox;
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> paths = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().endsWith(OutboxSegment.FILE_SUFFIX))
+                    .sorted()
+                    .forEach(paths::add);
+        }
+        synchronized (this) {
+            for (Path path : paths) {
+                String fileName = path.getFileName().toString();
+                long id;
+                try {
+                    id = Long.parseLong(fileName.substring(0, fileName.length() - OutboxSegment.FILE_SUFFIX.length()));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                OutboxSegment segment = OutboxSegment.open(path);
+                OutboxSegment previous = segments.peekLast();
+                if (previous != null) {
+                    previous.seal();
+                    if (previous.isReclaimable()) {
+                        segments.pollLast();
+                        previous.delete();
+                    }
+                }
+                segments.addLast(segment);
+                spooled.addAndGet(segment.getPending());
+                nextSegmentId = id + 1;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a message should be spooled instead of being published directly.
+     *
+     * @param shard Index of the connection the message would be published through.
+     */
+    boolean shouldSpool(int shard) {
+        return spooled.get() > 0 || inFlight.get() >= maxPubAcksInFlight || !isConnected(shard);
+    }
+
+    private boolean isConnected(int shard) {
+        return pool.getConnection(shard).getNatsConnection().getStatus() == Connection.Status.CONNECTED;
+    }
+
+    /**
+     * Appends a message to the outbox.
+     *
+     * @param subject Subject the message is published to.
+     * @param data    Content of the message.
+     * @return A locally generated identifier of the spooled message.
+     * @throws IOException If the message cannot be written or the outbox has reached its maximum disk usage.
+     */
+    String append(String subject, byte[] data) throws IOException {
+        byte[] subjectBytes = subject.getBytes(StandardCharsets.UTF_8);
+        if (OutboxSegment.recordSize(subjectBytes.length, data.length) + Integer.BYTES > segmentSize) {
+            throw new IOException("Message of " + data.length + " bytes does not fit in an outbox segment of " +
+                                          segmentSize + " bytes");
+        }
+        synchronized (this) {
+            if (!running) {
+                throw new IOException("Outbox is closed");
+            }
+            OutboxSegment segment = segments.peekLast();
+            if (segment == null || !segment.append(subjectBytes, data)) {
+                if (segment != null) {
+                    segment.seal();
+                    if (segment.isReclaimable()) {
+                        segments.pollLast();
+                        segment.delete();
+                    }
+                }
+                if ((long) (segments.size() + 1) * segmentSize > maxDiskUsage) {
+                    throw new IOException("Outbox has reached its maximum disk usage of " + maxDiskUsage + " bytes");
+                }
+                segment = OutboxSegment.create(directory, nextSegmentId++, segmentSize);
+                segments.addLast(segment);
+                segment.append(subjectBytes, data);
+            }
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                segment.force();
+            }
+            spooled.incrementAndGet();
+            notifyAll();
+        }
+        return NUID.nextGlobal();
+    }
+
+    /**
+     * Records a message published directly, which is waiting for its acknowledgement.
+     */
+    void onPublish() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Records the acknowledgement (or the failure) of a message published directly.
+     */
+    void onAck() {
+        inFlight.decrementAndGet();
+    }
+
+    private void drain() {
+        while (running) {
+            try {
+                forceIfDue();
+                if (inFlight.get() >= maxPubAcksInFlight) {
+                    TimeUnit.MILLISECONDS.sleep(RETRY_INTERVAL_MILLIS);
+                    continue;
+                }
+                OutboxSegment.SpooledMessage message = retries.pollFirst();
+                if (message == null) {
+                    message = awaitNext();
+                }
+                if (message != null) {
+                    publish(message);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private synchronized OutboxSegment.SpooledMessage awaitNext() throws InterruptedException {
+        for (OutboxSegment segment : segments) {
+            if (segment.hasUnread()) {
+                OutboxSegment.SpooledMessage message = segment.next();
+                if (message != null) {
+                    return message;
+                }
+            }
+        }
+        wait(fsyncPolicy == FsyncPolicy.PERIODIC ? Math.max(TimeUnit.NANOSECONDS.toMillis(fsyncIntervalNanos), 1) :
+                     RETRY_INTERVAL_MILLIS);
+        return null;
+    }
+
+    private void publish(OutboxSegment.SpooledMessage message) throws InterruptedException {
+        int shard = pool.shardOf(message.getSubject());
+        if (!isConnected(shard)) {
+            // Keeps the order of the spooled messages and backs off until the connection recovers.
+            retries.addFirst(message);
+            TimeUnit.MILLISECONDS.sleep(RETRY_INTERVAL_MILLIS);
+            return;
+        }
+        NatsMetricsReporter natsMetricsReporter = pool.getReporter(shard);
+        inFlight.incrementAndGet();
+        natsMetricsReporter.reportPendingAck();
+        try {
+            pool.getConnection(shard).publish(message.getSubject(), message.getData(),
+                                              (nuid, ex) -> onSpooledAck(message, ex));
+            natsMetricsReporter.reportPublish(message.getSubject(), message.getData().length);
+        } catch (IOException | TimeoutException | IllegalStateException e) {
+            inFlight.decrementAndGet();
+            natsMetricsReporter.reportPendingAckCompleted();
+            natsMetricsReporter.reportProducerError(message.getSubject(),
+                                                    NatsObservabilityConstants.ERROR_TYPE_PUBLISH);
+            // Keeps the order of the spooled messages and backs off until the connection recovers.
+            retries.addFirst(message);
+            TimeUnit.MILLISECONDS.sleep(RETRY_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            inFlight.decrementAndGet();
+            natsMetricsReporter.reportPendingAckCompleted();
+            retries.addFirst(message);
+            throw e;
+        }
+    }
+
+    private void onSpooledAck(OutboxSegment.SpooledMessage message, Exception ex) {
+        NatsMetricsReporter natsMetricsReporter = pool.getReporter(pool.shardOf(message.getSubject()));
+        inFlight.decrementAndGet();
+        natsMetricsReporter.reportPendingAckCompleted();
+        if (ex != null) {
+            natsMetricsReporter.reportProducerError(message.getSubject(),
+                                                    NatsObservabilityConstants.ERROR_TYPE_ACKNOWLEDGEMENT);
+            // Published again ahead of the messages spooled after it, which are not drained yet.
+            retries.addFirst(message);
+            return;
+        }
+        natsMetricsReporter.reportAcknowledgement(message.getSubject());
+        synchronized (this) {
+            OutboxSegment segment = message.getSegment();
+            if (!segment.acknowledge(message.getPosition())) {
+                return;
+            }
+            spooled.decrementAndGet();
+            if (segment.isReclaimable() && segments.remove(segment)) {
+                try {
+                    segment.delete();
+                } catch (IOException e) {
+                    // A file left behind only holds acknowledged records, which are skipped on the next start.
+                    natsMetricsReporter.reportProducerError(message.getSubject(),
+                                                            NatsObservabilityConstants.ERROR_TYPE_OUTBOX);
+                }
+            }
+        }
+    }
+
+    private synchronized void forceIfDue() {
+        if (fsyncPolicy != FsyncPolicy.PERIODIC || System.nanoTime() - lastForce < fsyncIntervalNanos) {
+            return;
+        }
+        for (OutboxSegment segment : segments) {
+            segment.force();
+        }
+        lastForce = System.nanoTime();
+    }
+
+    /**
+     * Stops draining and flushes the outbox to the disk. The messages which are not acknowledged yet are kept on
+     * the disk and published when the outbox is opened again.
+     *
+     * @throws IOException If a segment cannot be flushed or closed.
+     */
+    void close() throws IOException {
+        synchronized (this) {
+            running = false;
+            notifyAll();
+        }
+        drainer.interrupt();
+        try {
+            drainer.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        IOException error = null;
+        synchronized (this) {
+            for (OutboxSegment segment : segments) {
+                try {
+                    segment.close();
+                } catch (IOException e) {
+                    error = e;
+                }
+            }
+            segments.clear();
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Policy of flushing the appended messages to the disk.
+     */
+    enum FsyncPolicy {
+        ALWAYS,
+        PERIODIC,
+        NEVER
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.stan.producer;
+
+import io.ballerina.stdlib.stan.observability.NatsMetricsReporter;
+import io.nats.streaming.StreamingConnection;
+
+import java.util.Arrays;
+
+/**
+ * The connections of a client, each with its own socket and acknowledgement inbox. Subjects are assigned to the
+ * connections through a consistent hash ring, so all the messages of a subject are published through the same
+ * connection and keep their order.
+ */
+class PublisherPool {
+    private static final int VIRTUAL_NODES_PER_SHARD = 64;
+
+    private final StreamingConnection[] connections;
+    private final NatsMetricsReporter[] reporters;
+    private final int[] ringHashes;
+    private final int[] ringShards;
+
+    PublisherPool(StreamingConnection[] connections, NatsMetricsReporter[] reporters) {
+        this.connections = connections.clone();
+        this.reporters = reporters.clone();
+        int size = connections.length == 1 ? 1 : connections.length * VIRTUAL_NODES_PER_SHARD;
+        long[] ring = new long[size];
+        for (int i = 0; i < size; i++) {
+            int shard = connections.length == 1 ? 0 : i / VIRTUAL_NODES_PER_SHARD;
+            // Packs the position on the ring and the shard, so that sorting keeps them together.
+            ring[i] = ((long) mix(shard * 0x9E3779B9 + i) << 32) | shard;
+        }
+        Arrays.sort(ring);
+        this.ringHashes = new int[size];
+        this.ringShards = new int[size];
+        for (int i = 0; i < size; i++) {
+            ringHashes[i] = (int) (ring[i] >> 32);
+            ringShards[i] = (int) ring[i];
+        }
+    }
+
+    /**
+     * Returns the index of the connection the messages of the given subject are published through.
+     */
+    int shardOf(String subject) {
+        if (connections.length == 1) {
+            return 0;
+        }
+        int index = Arrays.binarySearch(ringHashes, mix(subject.hashCode()));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return ringShards[index == ringHashes.length ? 0 : index];
+    }
+
+    StreamingConnection getConnection(int shard) {
+        return connections[shard];
+    }
+
+    NatsMetricsReporter getReporter(int shard) {
+        return reporters[shard];
+    }
+
+    int size() {
+        return connections.length;
+    }
+
+    // Spreads the bits of a hash code, so that similar subjects land far apart on the ring.
+    private static int mix(int hash) {
+        int h = hash;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -28,4 +28,5 @@ module io.ballerina.stdlib.stan.runtime {
     exports io.ballerina.stdlib.stan.consumer;
     exports io.ballerina.stdlib.stan.producer;
     exports io.ballerina.stdlib.stan.message;
+    exports io.ballerina.stdlib.stan.codec;
 }